@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build an AList of size items with addLast, for a few
+ * resize factors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AListBenchmark {
+
+    @Param({"2", "3", "4"})
+    public int rfactor;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Integer[] items;
+
+    @Setup
+    public void setUp() {
+        items = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i;
+        }
+    }
+
+    @Benchmark
+    public Object addLast() throws Throwable {
+        Object list = (Object) LectureCode.NEW_ALIST.invokeExact(rfactor);
+        for (Integer item : items) {
+            LectureCode.ADD_LAST.invokeExact(list, (Object) item);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import map61b.ArrayMap;
+import map61b.HashArrayMap;
+import map61b.Map61B;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to put size distinct keys into an empty map, to get every key
+ * back out of a full one, and to visit every key and value with
+ * forEach. HashArrayMap is included as a baseline for ArrayMap's linear
+ * key scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayMapBenchmark {
+
+    @Param({"ArrayMap", "HashArrayMap"})
+    public String impl;
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private String[] keys;
+    private Map61B<String, Integer> full;
+
+    private Map61B<String, Integer> newMap() {
+        if (impl.equals("HashArrayMap")) {
+            return new HashArrayMap<>();
+        }
+        return new ArrayMap<>();
+    }
+
+    @Setup
+    public void setUp() {
+        keys = new String[size];
+        full = newMap();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            full.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Map61B<String, Integer> put() {
+        Map61B<String, Integer> m = newMap();
+        for (int i = 0; i < keys.length; i++) {
+            m.put(keys[i], i);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(full.get(key));
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        full.forEach((k, v) -> {
+            bh.consume(k);
+            bh.consume(v);
+        });
+    }
+}
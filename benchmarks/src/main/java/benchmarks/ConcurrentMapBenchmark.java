@@ -0,0 +1,89 @@
+package benchmarks;
+
+import map61b.ConcurrentHashMap61B;
+import map61b.HashArrayMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a read-heavy mix (one put per readsPerWrite gets) on one
+ * map shared by every benchmark thread. "locked" is HashArrayMap behind a
+ * single lock, the usual way to share a map that isn't thread-safe.
+ * Integer keys have hashCodes that differ only in their low bits, which
+ * checks that writers still spread over ConcurrentHashMap61B's segments.
+ * Run with -t 1, -t 2, -t 4 ... to see how each scales with threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentMapBenchmark {
+
+    @Param({"locked", "ConcurrentHashMap61B"})
+    public String impl;
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"0", "20"})
+    public int readsPerWrite;
+
+    @Param({"String", "Integer"})
+    public String keyType;
+
+    private Object[] keys;
+    private HashArrayMap<Object, Integer> lockedMap;
+    private ConcurrentHashMap61B<Object, Integer> concurrentMap;
+    private boolean locked;
+
+    @Setup
+    public void setUp() {
+        locked = impl.equals("locked");
+        keys = new Object[size];
+        lockedMap = new HashArrayMap<>();
+        concurrentMap = new ConcurrentHashMap61B<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyType.equals("Integer") ? (Object) i : "key" + i;
+            lockedMap.put(keys[i], i);
+            concurrentMap.put(keys[i], i);
+        }
+    }
+
+    /** One get, or with readsPerWrite > 0, a put once in that many calls. */
+    @Benchmark
+    public Integer mixed() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        Object key = keys[r.nextInt(keys.length)];
+        boolean write = readsPerWrite > 0 && r.nextInt(readsPerWrite + 1) == 0;
+        if (locked) {
+            synchronized (lockedMap) {
+                if (write) {
+                    lockedMap.put(key, 0);
+                    return 0;
+                }
+                return lockedMap.get(key);
+            }
+        }
+        if (write) {
+            concurrentMap.put(key, 0);
+            return 0;
+        }
+        return concurrentMap.get(key);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Handles to the lecture classes that live in the unnamed package
+ * (AList, SLList, Sort). Java can't import from the unnamed package and
+ * JMH refuses benchmarks in it, so the benchmarks reach those classes
+ * through these method handles. They are static final, which lets the
+ * JIT inline them like direct calls.
+ */
+final class LectureCode {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /** (int rfactor) -> Object: new AList<>(rfactor). */
+    static final MethodHandle NEW_ALIST =
+            constructor("AList", MethodType.methodType(void.class, int.class));
+
+    /** () -> Object: new SLList<>(). */
+    static final MethodHandle NEW_SLLIST =
+            constructor("SLList", MethodType.methodType(void.class));
+
+    /** (Object list, Object x) -> void: list.addLast(x). */
+    static final MethodHandle ADD_LAST =
+            listMethod("addLast", MethodType.methodType(void.class, Object.class));
+
+    /** (Object list, int i) -> Object: list.get(i). */
+    static final MethodHandle GET =
+            listMethod("get", MethodType.methodType(Object.class, int.class));
+
+    /** (String[] x) -> void: Sort.sort(x). */
+    static final MethodHandle SORT = sortMethod("sort");
+
+    /** (String[] x) -> void: Sort.parallelSort(x). */
+    static final MethodHandle PARALLEL_SORT = sortMethod("parallelSort");
+
+    /** (String[] x) -> void: Sort.radixSort(x). */
+    static final MethodHandle RADIX_SORT = sortMethod("radixSort");
+
+    private LectureCode() {
+    }
+
+    private static Class<?> lectureClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("lecture class " + name + " is not on the classpath", e);
+        }
+    }
+
+    private static MethodHandle constructor(String className, MethodType type) {
+        try {
+            MethodHandle mh = LOOKUP.findConstructor(lectureClass(className), type);
+            return mh.asType(mh.type().changeReturnType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle listMethod(String name, MethodType type) {
+        try {
+            MethodHandle mh = LOOKUP.findVirtual(lectureClass("List61B"), name, type);
+            return mh.asType(mh.type().changeParameterType(0, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle sortMethod(String name) {
+        try {
+            return LOOKUP.findStatic(lectureClass("Sort"), name,
+                    MethodType.methodType(void.class, String[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build an SLList of size items with addLast, and to get the
+ * middle and last items of a prebuilt one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SLListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Integer[] items;
+    private Object prebuilt;
+
+    @Setup
+    public void setUp() throws Throwable {
+        items = new Integer[size];
+        prebuilt = (Object) LectureCode.NEW_SLLIST.invokeExact();
+        for (int i = 0; i < size; i++) {
+            items[i] = i;
+            LectureCode.ADD_LAST.invokeExact(prebuilt, (Object) items[i]);
+        }
+    }
+
+    @Benchmark
+    public Object addLast() throws Throwable {
+        Object list = (Object) LectureCode.NEW_SLLIST.invokeExact();
+        for (Integer item : items) {
+            LectureCode.ADD_LAST.invokeExact(list, (Object) item);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object getMiddle() throws Throwable {
+        return (Object) LectureCode.GET.invokeExact(prebuilt, size / 2);
+    }
+
+    @Benchmark
+    public Object getLast() throws Throwable {
+        return (Object) LectureCode.GET.invokeExact(prebuilt, size - 1);
+    }
+}
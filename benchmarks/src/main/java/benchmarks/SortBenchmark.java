@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for Sort.sort, Sort.parallelSort and Sort.radixSort on short
+ * lowercase words, either shuffled or already sorted. Every invocation
+ * clones the input and sorts the copy, so each score includes the same
+ * clone cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"random", "sorted"})
+    public String order;
+
+    private String[] input;
+
+    @Setup
+    public void makeInput() {
+        Random r = new Random(61);
+        input = new String[size];
+        for (int i = 0; i < size; i++) {
+            char[] word = new char[1 + r.nextInt(10)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('a' + r.nextInt(26));
+            }
+            input[i] = new String(word);
+        }
+        if (order.equals("sorted")) {
+            Arrays.sort(input);
+        }
+    }
+
+    @Benchmark
+    public String[] sort() throws Throwable {
+        String[] x = input.clone();
+        LectureCode.SORT.invokeExact(x);
+        return x;
+    }
+
+    @Benchmark
+    public String[] parallelSort() throws Throwable {
+        String[] x = input.clone();
+        LectureCode.PARALLEL_SORT.invokeExact(x);
+        return x;
+    }
+
+    @Benchmark
+    public String[] radixSort() throws Throwable {
+        String[] x = input.clone();
+        LectureCode.RADIX_SORT.invokeExact(x);
+        return x;
+    }
+}
@@ -7,12 +7,20 @@ public class IntList {
     rest = r;
   }
 
-  /** Return the size of the list using recursion */
+  /**
+   * Return the size of the list. Uses iteration, since the
+   * recursive version below needs one stack frame per item.
+   */
   public int size() {
+    return iterativeSize();
+  }
+
+  /** Return the size of the list using recursion */
+  public int recursiveSize() {
     if (rest == null) {
       return 1;
     }
-    return 1 + rest.size();
+    return 1 + rest.recursiveSize();
   }
 
   /** Return the size of the List using iteration */
@@ -26,25 +34,46 @@ public class IntList {
     return totalSize;
   }
 
-  /** Returns the ith item of this list using recursion */
+  /** Returns the ith item of this list using iteration */
   public int get(int i) {
+    if (i < 0) {
+      throw new IndexOutOfBoundsException("No item " + i);
+    }
+    IntList p = this;
+    while (i > 0) {
+      if (p.rest == null) {
+        throw new IndexOutOfBoundsException("No item " + i);
+      }
+      p = p.rest;
+      i--;
+    }
+    return p.first;
+  }
+
+  /** Returns the ith item of this list using recursion */
+  public int recursiveGet(int i) {
     if (i == 0) {
       return first;
     }
   
-    return rest.get(i - 1);
+    return rest.recursiveGet(i - 1);
   }
 
   /** 
    * Convert IntList to String format 
    * NOTE: This is NOT included in sp18 lecture. Instead, 
    * it's from the sp16 version. 
+   *
+   * The sp16 version was recursive and built a new String at every
+   * level, copying the tail again each time: O(n^2) characters. One
+   * StringBuilder makes it O(n).
    */
   public String toString() {
-    if (rest == null) {
-      return Integer.toString(first);
+    StringBuilder sb = new StringBuilder(Integer.toString(first));
+    for (IntList p = rest; p != null; p = p.rest) {
+      sb.append(' ').append(p.first);
     }
-    return Integer.toString(first) + " " + rest.toString();
+    return sb.toString();
   }
 
   /** 
@@ -53,12 +82,27 @@ public class IntList {
    * to change. 
    */
   public static IntList incrList(IntList L, int x) {
-    // Using recursion, but iteration also works. 
-    // Also, other base cases are possible
+    // Using iteration, so long lists don't overflow the stack.
+    // Each new node is hung off the end of the previous one.
+    if (L == null) {
+      return null;
+    }
+    IntList result = new IntList(L.first + x, null);
+    IntList last = result;
+    for (IntList p = L.rest; p != null; p = p.rest) {
+      last.rest = new IntList(p.first + x, null);
+      last = last.rest;
+    }
+    return result;
+  }
+
+  /** incrList using recursion. */
+  public static IntList recursiveIncrList(IntList L, int x) {
+    /* Other base cases are possible. */
     if (L == null) {
       return null;
     }
-    return new IntList(L.first + x, incrList(L.rest, x));
+    return new IntList(L.first + x, recursiveIncrList(L.rest, x));
 
     /*
      * Josh Hug prof's solution:
@@ -66,7 +110,7 @@ public class IntList {
      * for two lines for maximum pedagogical clarity. 
      */
     // IntList incrementedList = new IntList(L.first + x, null);
-    // incrementedList.rest = incrList(L.rest, x);
+    // incrementedList.rest = recursiveIncrList(L.rest, x);
     // return incrementedList;
   }
 
@@ -76,16 +120,24 @@ public class IntList {
    * the 'new' keyword. 
    */
   public static IntList dincrList(IntList L, int x) {
+    /* Using iteration, so long lists don't overflow the stack. */
+    for (IntList p = L; p != null; p = p.rest) {
+      p.first += x;
+    }
+    return L;
+  }
+
+  /** dincrList using recursion. */
+  public static IntList recursiveDincrList(IntList L, int x) {
     /* 
-     * Using recursion, but iteration also works. 
-     * Also, other base cases are possible.
+     * Other base cases are possible.
      */ 
     if (L == null) {
       return null;
     }
     
     L.first += x;
-    dincrList(L.rest, x); // Don't care about return value here
+    recursiveDincrList(L.rest, x); // Don't care about return value here
 
     return L;
   }
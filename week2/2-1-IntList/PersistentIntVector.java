@@ -0,0 +1,260 @@
+/**
+ * A list of ints that never changes. "Changing" it returns a new vector
+ * and leaves the old one as it was, so it is always safe to share a
+ * vector between lists, or between threads, without copying it.
+ *
+ * Compare IntList: incrList copies every node to avoid changing L, and
+ * dincrList changes L in place, so every list sharing nodes with L sees
+ * the change too. Here, the new and old versions share almost all of
+ * their storage instead:
+ *
+ *  - The items live in a tree where every node has up to 32 children,
+ *    so it is at most log32(n) levels deep (7 levels for 2^32 items).
+ *    The leaves are int[32] arrays.
+ *  - set copies only the nodes on the path from the root to one leaf,
+ *    O(log n) memory, and points the copies at the old, untouched
+ *    nodes everywhere else.
+ *  - The last 1 to 32 items sit in a separate "tail" array outside the
+ *    tree, so append usually copies only the tail, and puts it into
+ *    the tree once it's full.
+ *  - Every vector also stores a number added to each item when it is
+ *    read, so incrList just returns a vector with a bigger number and
+ *    the same tree: O(1) time and memory.
+ */
+public class PersistentIntVector {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  public static final PersistentIntVector EMPTY =
+      new PersistentIntVector(0, BITS, new Object[WIDTH], new int[0], 0);
+
+  private final int size;
+  /* How far to shift an index to get the child to follow from root. */
+  private final int shift;
+  /* Inner nodes are Object[WIDTH] and leaves are int[WIDTH]. */
+  private final Object[] root;
+  private final int[] tail;
+  /* Added to every stored number to get the actual item. */
+  private final int delta;
+
+  private PersistentIntVector(int size, int shift, Object[] root, int[] tail, int delta) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+    this.delta = delta;
+  }
+
+  /** Returns a vector of the given items, in order. */
+  public static PersistentIntVector of(int... items) {
+    if (items.length == 0) {
+      return EMPTY;
+    }
+    /* Hand whole leaves to the tree rather than appending one by one. */
+    int n = Math.min(WIDTH, items.length);
+    int[] first = new int[n];
+    System.arraycopy(items, 0, first, 0, n);
+    PersistentIntVector v = new PersistentIntVector(n, BITS, EMPTY.root, first, 0);
+    for (int i = n; i < items.length; i += WIDTH) {
+      int[] leaf = new int[Math.min(WIDTH, items.length - i)];
+      System.arraycopy(items, i, leaf, 0, leaf.length);
+      v = v.pushTail(leaf);
+    }
+    return v;
+  }
+
+  /** Returns a vector with the same items as L. */
+  public static PersistentIntVector fromIntList(IntList L) {
+    if (L == null) {
+      return EMPTY;
+    }
+    int[] items = new int[L.size()];
+    int i = 0;
+    for (IntList p = L; p != null; p = p.rest) {
+      items[i] = p.first;
+      i++;
+    }
+    return of(items);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /* Index of the first item in the tail. */
+  private int tailOffset() {
+    if (size < WIDTH) {
+      return 0;
+    }
+    return ((size - 1) >>> BITS) << BITS;
+  }
+
+  /* Returns the array that holds item i, before adding delta. */
+  private int[] leafFor(int i) {
+    if (i >= tailOffset()) {
+      return tail;
+    }
+    Object node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = ((Object[]) node)[(i >>> level) & MASK];
+    }
+    return (int[]) node;
+  }
+
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("No item " + i);
+    }
+  }
+
+  /** Returns the ith item, following one path down the tree. */
+  public int get(int i) {
+    checkIndex(i);
+    return leafFor(i)[i & MASK] + delta;
+  }
+
+  /**
+   * Returns a vector like this one, but with x as its ith item. Copies
+   * one leaf and the nodes above it; the rest is shared.
+   */
+  public PersistentIntVector set(int i, int x) {
+    checkIndex(i);
+    if (i >= tailOffset()) {
+      int[] newTail = tail.clone();
+      newTail[i & MASK] = x - delta;
+      return new PersistentIntVector(size, shift, root, newTail, delta);
+    }
+    return new PersistentIntVector(size, shift, (Object[]) set(shift, root, i, x - delta), tail, delta);
+  }
+
+  /* Returns a copy of node, a subtree at the given level, with item i set. */
+  private static Object set(int level, Object node, int i, int stored) {
+    if (level == 0) {
+      int[] leaf = ((int[]) node).clone();
+      leaf[i & MASK] = stored;
+      return leaf;
+    }
+    Object[] copy = ((Object[]) node).clone();
+    int child = (i >>> level) & MASK;
+    copy[child] = set(level - BITS, copy[child], i, stored);
+    return copy;
+  }
+
+  /** Returns a vector like this one with x added at the end. */
+  public PersistentIntVector append(int x) {
+    if (size - tailOffset() < WIDTH) {
+      int[] newTail = new int[tail.length + 1];
+      System.arraycopy(tail, 0, newTail, 0, tail.length);
+      newTail[tail.length] = x - delta;
+      return new PersistentIntVector(size + 1, shift, root, newTail, delta);
+    }
+    return pushTail(new int[] {x - delta});
+  }
+
+  /**
+   * Returns a vector with the (full) tail moved into the tree and
+   * newTail as the tail after it.
+   */
+  private PersistentIntVector pushTail(int[] newTail) {
+    Object[] newRoot;
+    int newShift = shift;
+    if ((size >>> BITS) > (1 << shift)) {
+      /* The tree is full, so it gets a new root one level up. */
+      newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      newRoot[1] = newPath(shift, tail);
+      newShift += BITS;
+    } else {
+      newRoot = pushTail(shift, root, tail);
+    }
+    return new PersistentIntVector(size + newTail.length, newShift, newRoot, newTail, delta);
+  }
+
+  /* Returns a copy of parent, at the given level, with leaf added after its last leaf. */
+  private Object[] pushTail(int level, Object[] parent, int[] leaf) {
+    Object[] copy = parent.clone();
+    int child = ((size - 1) >>> level) & MASK;
+    if (level == BITS) {
+      copy[child] = leaf;
+    } else if (parent[child] != null) {
+      copy[child] = pushTail(level - BITS, (Object[]) parent[child], leaf);
+    } else {
+      copy[child] = newPath(level - BITS, leaf);
+    }
+    return copy;
+  }
+
+  /* Returns a chain of single-child nodes from the given level down to leaf. */
+  private static Object newPath(int level, int[] leaf) {
+    if (level == 0) {
+      return leaf;
+    }
+    Object[] node = new Object[WIDTH];
+    node[0] = newPath(level - BITS, leaf);
+    return node;
+  }
+
+  /**
+   * Returns a vector identical to L, but with each item incremented by
+   * x. L is not changed, and shares all its storage with the result.
+   */
+  public static PersistentIntVector incrList(PersistentIntVector L, int x) {
+    if (L.size == 0) {
+      return L;
+    }
+    return new PersistentIntVector(L.size, L.shift, L.root, L.tail, L.delta + x);
+  }
+
+  /** Returns the items in order, a leaf at a time. */
+  public int[] toArray() {
+    int[] result = new int[size];
+    for (int i = 0; i < size; i += WIDTH) {
+      int[] leaf = leafFor(i);
+      for (int j = 0; j < leaf.length && i + j < size; j++) {
+        result[i + j] = leaf[j] + delta;
+      }
+    }
+    return result;
+  }
+
+  /** Returns an IntList with the same items, or null if this is empty. */
+  public IntList toIntList() {
+    IntList L = null;
+    for (int i = size - 1; i >= 0; i--) {
+      L = new IntList(get(i), L);
+    }
+    return L;
+  }
+
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int x : toArray()) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(x);
+    }
+    return sb.toString();
+  }
+
+  public static void main(String[] args) {
+    PersistentIntVector L = of(5, 10, 15);
+    PersistentIntVector L2 = incrList(L, 3);
+    PersistentIntVector L3 = L2.set(1, 100);
+
+    /* Unlike dincrList in IntList.main, making L2 and L3 leaves L alone. */
+    System.out.println(L);
+    System.out.println(L2);
+    System.out.println(L3);
+
+    int n = 1000000;
+    PersistentIntVector big = EMPTY;
+    for (int i = 0; i < n; i++) {
+      big = big.append(i);
+    }
+    PersistentIntVector changed = incrList(big, 1).set(n / 2, -1);
+    System.out.println(big.get(n / 2) + " " + changed.get(n / 2));
+    System.out.println(big.get(n - 1) + " " + changed.get(n - 1));
+  }
+}
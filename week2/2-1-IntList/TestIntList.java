@@ -0,0 +1,66 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that IntList's iterative methods agree with the recursive ones,
+ * and work on lists too long for recursion.
+ */
+public class TestIntList {
+
+  private static IntList of(int... items) {
+    IntList L = null;
+    for (int i = items.length - 1; i >= 0; i--) {
+      L = new IntList(items[i], L);
+    }
+    return L;
+  }
+
+  @Test
+  public void testMatchesRecursive() {
+    IntList L = of(5, 10, 15, -3, 0);
+    assertEquals(L.recursiveSize(), L.size());
+    assertEquals(L.recursiveSize(), L.iterativeSize());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(L.recursiveGet(i), L.get(i));
+    }
+    assertEquals(IntList.recursiveIncrList(L, 3).toString(), IntList.incrList(L, 3).toString());
+    assertEquals("5 10 15 -3 0", L.toString());
+    assertEquals("8 13 18 0 3", IntList.dincrList(of(5, 10, 15, -3, 0), 3).toString());
+    assertEquals(IntList.recursiveDincrList(of(1, 2), 3).toString(),
+        IntList.dincrList(of(1, 2), 3).toString());
+    assertNull(IntList.incrList(null, 3));
+    assertNull(IntList.dincrList(null, 3));
+  }
+
+  @Test
+  public void testGetBadIndex() {
+    IntList L = of(1, 2, 3);
+    assertEquals(3, L.get(2));
+    int[] bad = {-1, 3, 100};
+    for (int i : bad) {
+      try {
+        L.get(i);
+        fail("Expected IndexOutOfBoundsException");
+      } catch (IndexOutOfBoundsException e) {
+        /* expected */
+      }
+    }
+  }
+
+  @Test
+  public void testMillionItems() {
+    int n = 1000000;
+    IntList L = null;
+    for (int i = n; i > 0; i--) {
+      L = new IntList(i, L);
+    }
+    assertEquals(n, L.size());
+    assertEquals(n, L.get(n - 1));
+    IntList L2 = IntList.incrList(L, 1);
+    assertEquals(n + 1, L2.get(n - 1));
+    assertEquals(n, L.get(n - 1));
+    assertEquals(n + 2, IntList.dincrList(L2, 1).get(n - 1));
+    assertTrue(L.toString().endsWith(" " + n));
+  }
+
+}
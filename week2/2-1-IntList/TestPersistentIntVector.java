@@ -0,0 +1,175 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests PersistentIntVector against an ArrayList, at sizes on both sides
+ * of where the tail fills up and where the tree gains a level.
+ */
+public class TestPersistentIntVector {
+
+  /* 32 items fill a leaf, 32 * 32 a tree one level deep, and so on,
+   * with up to 32 more in the tail. */
+  private static final int[] SIZES = {0, 1, 31, 32, 33, 63, 64, 65, 1024, 1025, 1056, 1057,
+      32768, 32800, 32801, 33824, 33825, 1048576, 1048608, 1048609, 1100000};
+
+  private static void assertMatches(List<Integer> expected, PersistentIntVector v) {
+    assertEquals(expected.size(), v.size());
+    int[] array = v.toArray();
+    assertEquals(expected.size(), array.length);
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals((int) expected.get(i), v.get(i));
+      assertEquals((int) expected.get(i), array[i]);
+    }
+  }
+
+  private static List<Integer> randomItems(Random r, int n) {
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      items.add(r.nextInt());
+    }
+    return items;
+  }
+
+  private static int[] toArray(List<Integer> items) {
+    int[] result = new int[items.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = items.get(i);
+    }
+    return result;
+  }
+
+  @Test
+  public void testOf() {
+    Random r = new Random(61);
+    for (int n : SIZES) {
+      List<Integer> items = randomItems(r, n);
+      assertMatches(items, PersistentIntVector.of(toArray(items)));
+    }
+    assertSame(PersistentIntVector.EMPTY, PersistentIntVector.of());
+  }
+
+  /** Appending one at a time, and every earlier version stays as it was. */
+  @Test
+  public void testAppend() {
+    Random r = new Random(61);
+    List<Integer> items = randomItems(r, SIZES[SIZES.length - 1]);
+    List<PersistentIntVector> versions = new ArrayList<>();
+    PersistentIntVector v = PersistentIntVector.EMPTY;
+    int next = 0;
+    for (int i = 0; i <= items.size(); i++) {
+      if (i == SIZES[next]) {
+        assertMatches(items.subList(0, i), v);
+        versions.add(v);
+        next++;
+      }
+      if (i < items.size()) {
+        v = v.append(items.get(i));
+      }
+    }
+    for (int i = 0; i < versions.size(); i++) {
+      assertMatches(items.subList(0, SIZES[i]), versions.get(i));
+    }
+  }
+
+  /** Appending to an old version leaves the newer ones alone. */
+  @Test
+  public void testAppendToOldVersion() {
+    PersistentIntVector v = PersistentIntVector.of(toArray(randomItems(new Random(61), 1056)));
+    PersistentIntVector a = v.append(1);
+    PersistentIntVector b = v.append(2);
+    assertEquals(1, a.get(1056));
+    assertEquals(2, b.get(1056));
+    assertEquals(1056, v.size());
+    assertEquals(a.get(1055), b.get(1055));
+  }
+
+  @Test
+  public void testSet() {
+    Random r = new Random(61);
+    for (int n : SIZES) {
+      if (n == 0) {
+        continue;
+      }
+      List<Integer> items = randomItems(r, n);
+      PersistentIntVector v = PersistentIntVector.of(toArray(items));
+      List<Integer> expected = new ArrayList<>(items);
+      /* The ends, a leaf boundary and a few random places. */
+      int[] indices = {0, n - 1, Math.min(n - 1, 32), Math.min(n - 1, 1023),
+          r.nextInt(n), r.nextInt(n), r.nextInt(n)};
+      PersistentIntVector changed = v;
+      for (int i : indices) {
+        int x = r.nextInt();
+        changed = changed.set(i, x);
+        expected.set(i, x);
+      }
+      assertMatches(expected, changed);
+      assertMatches(items, v);
+    }
+  }
+
+  /**
+   * incrList shares everything with L but returns bigger items, and
+   * changing either one afterwards doesn't change the other.
+   */
+  @Test
+  public void testIncrList() {
+    Random r = new Random(61);
+    for (int n : SIZES) {
+      List<Integer> items = randomItems(r, n);
+      PersistentIntVector v = PersistentIntVector.of(toArray(items));
+      PersistentIntVector incr = PersistentIntVector.incrList(v, 3);
+      List<Integer> expected = new ArrayList<>();
+      for (int x : items) {
+        expected.add(x + 3);
+      }
+      assertMatches(expected, incr);
+
+      /* set and append on the incremented vector store what they're given. */
+      PersistentIntVector changed = incr.append(7);
+      expected.add(7);
+      if (n > 0) {
+        int i = r.nextInt(n);
+        changed = changed.set(i, 100);
+        expected.set(i, 100);
+      }
+      assertMatches(expected, changed);
+      assertMatches(items, v);
+      assertMatches(items, PersistentIntVector.incrList(incr, -3));
+    }
+  }
+
+  @Test
+  public void testIntList() {
+    assertNull(PersistentIntVector.EMPTY.toIntList());
+    assertEquals(0, PersistentIntVector.fromIntList(null).size());
+    IntList L = new IntList(5, new IntList(10, new IntList(15, null)));
+    PersistentIntVector v = PersistentIntVector.fromIntList(L);
+    assertEquals("5 10 15", v.toString());
+    assertEquals(L.toString(), v.toIntList().toString());
+  }
+
+  @Test
+  public void testBadIndex() {
+    PersistentIntVector v = PersistentIntVector.of(1, 2, 3);
+    int[] bad = {-1, 3};
+    for (int i : bad) {
+      try {
+        v.get(i);
+        fail("Expected IndexOutOfBoundsException");
+      } catch (IndexOutOfBoundsException e) {
+        /* expected */
+      }
+      try {
+        v.set(i, 0);
+        fail("Expected IndexOutOfBoundsException");
+      } catch (IndexOutOfBoundsException e) {
+        /* expected */
+      }
+    }
+  }
+
+}
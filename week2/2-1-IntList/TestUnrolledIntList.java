@@ -0,0 +1,196 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests UnrolledIntList against an ArrayList and against IntList, with
+ * lists that span several chunks and lists that share chunks.
+ */
+public class TestUnrolledIntList {
+
+  private static final int CHUNK = UnrolledIntList.CHUNK_SIZE;
+
+  /** Checks L against expected using rest(), get, size and forEach. */
+  private static void assertMatches(List<Integer> expected, UnrolledIntList L) {
+    if (expected.isEmpty()) {
+      assertNull(L);
+      return;
+    }
+    assertEquals(expected.size(), L.size());
+    int i = 0;
+    for (UnrolledIntList p = L; p != null; p = p.rest()) {
+      assertEquals((int) expected.get(i), p.first());
+      assertEquals(expected.size() - i, p.size());
+      i++;
+    }
+    assertEquals(expected.size(), i);
+    for (i = 0; i < expected.size(); i++) {
+      assertEquals((int) expected.get(i), L.get(i));
+    }
+    List<Integer> visited = new ArrayList<>();
+    L.forEach(visited::add);
+    assertEquals(expected, visited);
+  }
+
+  /** Builds a list back to front with the constructor, like an IntList. */
+  private static UnrolledIntList build(List<Integer> items) {
+    UnrolledIntList L = null;
+    for (int i = items.size() - 1; i >= 0; i--) {
+      L = new UnrolledIntList(items.get(i), L);
+    }
+    return L;
+  }
+
+  private static int[] toArray(List<Integer> items) {
+    int[] result = new int[items.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = items.get(i);
+    }
+    return result;
+  }
+
+  /** Sizes on both sides of one, two and three full chunks. */
+  @Test
+  public void testAcrossChunkBoundaries() {
+    Random r = new Random(61);
+    int[] sizes = {0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK, 2 * CHUNK + 1, 3 * CHUNK + 5};
+    for (int n : sizes) {
+      List<Integer> items = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        items.add(r.nextInt(1000) - 500);
+      }
+      assertMatches(items, build(items));
+      assertMatches(items, UnrolledIntList.of(toArray(items)));
+      if (n > 0) {
+        /* A list that starts part way into a chunk. */
+        UnrolledIntList L = build(items);
+        for (int i = 0; i < n; i++) {
+          assertMatches(items.subList(i, n), L);
+          L = L.rest();
+        }
+        assertNull(L);
+      }
+    }
+  }
+
+  /**
+   * Two lists put in front of the same list can't both use the free
+   * slot before it, so they stay independent.
+   */
+  @Test
+  public void testPrependTwiceOntoSameTail() {
+    UnrolledIntList tail = UnrolledIntList.of(10, 20, 30);
+    UnrolledIntList a = new UnrolledIntList(1, tail);
+    UnrolledIntList b = new UnrolledIntList(2, tail);
+    UnrolledIntList c = new UnrolledIntList(3, a.rest());
+    assertEquals("1 10 20 30", a.toString());
+    assertEquals("2 10 20 30", b.toString());
+    assertEquals("3 10 20 30", c.toString());
+    assertEquals("10 20 30", tail.toString());
+
+    a.setFirst(100);
+    b.setFirst(200);
+    assertEquals("100 10 20 30", a.toString());
+    assertEquals("200 10 20 30", b.toString());
+    assertEquals("3 10 20 30", c.toString());
+
+    /* Growing each further keeps them apart too. */
+    UnrolledIntList a2 = new UnrolledIntList(-1, a);
+    UnrolledIntList b2 = new UnrolledIntList(-2, b);
+    assertEquals("-1 100 10 20 30", a2.toString());
+    assertEquals("-2 200 10 20 30", b2.toString());
+
+    /* But they do share the tail, as IntLists would. */
+    tail.setFirst(11);
+    assertEquals("-1 100 11 20 30", a2.toString());
+    assertEquals("-2 200 11 20 30", b2.toString());
+  }
+
+  /** Random prepends onto random earlier lists, each checked at the end. */
+  @Test
+  public void testRandomSharing() {
+    Random r = new Random(61);
+    List<UnrolledIntList> lists = new ArrayList<>();
+    List<List<Integer>> expected = new ArrayList<>();
+    lists.add(null);
+    expected.add(new ArrayList<>());
+    for (int i = 0; i < 3000; i++) {
+      int j = r.nextInt(lists.size());
+      /* Mostly extend one of the latest lists, so some get long. */
+      if (r.nextInt(4) != 0) {
+        j = lists.size() - 1 - r.nextInt(Math.min(3, lists.size()));
+      }
+      lists.add(new UnrolledIntList(i, lists.get(j)));
+      List<Integer> items = new ArrayList<>();
+      items.add(i);
+      items.addAll(expected.get(j));
+      expected.add(items);
+    }
+    for (int i = 0; i < lists.size(); i++) {
+      assertMatches(expected.get(i), lists.get(i));
+    }
+  }
+
+  @Test
+  public void testMatchesIntList() {
+    int[] items = new int[3 * CHUNK + 7];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = i * i - 50;
+    }
+    UnrolledIntList L = UnrolledIntList.of(items);
+    IntList expected = L.toIntList();
+    assertEquals(expected.toString(), L.toString());
+    assertEquals(expected.size(), L.size());
+    assertEquals(L.toString(), UnrolledIntList.fromIntList(expected).toString());
+    assertNull(UnrolledIntList.fromIntList(null));
+
+    assertEquals(IntList.incrList(expected, 3).toString(),
+        UnrolledIntList.incrList(L, 3).toString());
+    assertEquals(expected.toString(), L.toString());
+    assertEquals(IntList.dincrList(expected, -4).toString(),
+        UnrolledIntList.dincrList(L, -4).toString());
+    assertEquals(expected.toString(), L.toString());
+  }
+
+  @Test
+  public void testBadIndex() {
+    UnrolledIntList L = UnrolledIntList.of(1, 2, 3);
+    int[] bad = {-1, 3, 100};
+    for (int i : bad) {
+      try {
+        L.get(i);
+        fail("Expected IndexOutOfBoundsException");
+      } catch (IndexOutOfBoundsException e) {
+        /* expected */
+      }
+    }
+  }
+
+  /** Long enough that anything recursive would overflow the stack. */
+  @Test
+  public void testMillionItems() {
+    int n = 1000000;
+    UnrolledIntList L = null;
+    for (int i = n; i > 0; i--) {
+      L = new UnrolledIntList(i, L);
+    }
+    assertEquals(n, L.size());
+    assertEquals(n, L.get(n - 1));
+    assertEquals(n + 1, UnrolledIntList.incrList(L, 1).get(n - 1));
+    assertEquals(n, L.toIntList().size());
+    long[] sum = {0};
+    L.forEach(x -> sum[0] += x);
+    assertEquals((long) n * (n + 1) / 2, sum[0]);
+
+    UnrolledIntList p = L;
+    for (int i = 0; i < n - 1; i++) {
+      p = p.rest();
+    }
+    assertEquals(n, p.first());
+    assertNull(p.rest());
+  }
+
+}
@@ -0,0 +1,233 @@
+import java.util.function.IntConsumer;
+
+/**
+ * An IntList that stores several ints per node ("unrolled"), so walking
+ * it reads whole arrays instead of chasing one pointer per item.
+ *
+ * It still looks like an IntList from the outside: first() is the first
+ * item and rest() is the list of the others, or null at the end. A list
+ * is just a position in some chunk, so rest() is usually the same chunk
+ * one slot further on, and no items are copied.
+ *
+ * Chunks fill from the back. Putting an item in front of a list that
+ * starts a chunk writes into the free slot before it, so building a
+ * list with the constructor, as with IntList, packs CHUNK_SIZE items
+ * per chunk. Like IntList, lists share their tails: changing an item
+ * through one list changes it for every list it belongs to.
+ *
+ * Unlike IntList, there is no public rest field to assign, so a list's
+ * tail can't be swapped for another one after it's built. And since
+ * rest() has to return a position inside a chunk, it makes a small new
+ * object on every call: walking a list with rest() allocates once per
+ * item. Use forEach to visit every item without allocating.
+ */
+public class UnrolledIntList {
+  public static final int CHUNK_SIZE = 32;
+
+  private static class Chunk {
+    public int[] items;
+    /* The items in use are items[start] to the end of the array. */
+    public int start;
+    /* The list after this chunk's last item, or null. */
+    public UnrolledIntList next;
+
+    public Chunk(int[] items, int start, UnrolledIntList next) {
+      this.items = items;
+      this.start = start;
+      this.next = next;
+    }
+  }
+
+  private Chunk chunk;
+  /* Index of first() in chunk.items. */
+  private int offset;
+
+  private UnrolledIntList(Chunk c, int i) {
+    chunk = c;
+    offset = i;
+  }
+
+  /** Creates the list f followed by the items of r, like new IntList(f, r). */
+  public UnrolledIntList(int f, UnrolledIntList r) {
+    if (r != null && r.offset == r.chunk.start && r.offset > 0) {
+      /* r is the front of its chunk and there's room before it. Any
+       * other list put in front of r later finds the slot taken, since
+       * start has moved, and gets a chunk of its own. */
+      chunk = r.chunk;
+      chunk.start--;
+    } else {
+      chunk = new Chunk(new int[CHUNK_SIZE], CHUNK_SIZE - 1, r);
+    }
+    offset = chunk.start;
+    chunk.items[offset] = f;
+  }
+
+  /** Returns a list of the given items, in order, or null if there are none. */
+  public static UnrolledIntList of(int... items) {
+    UnrolledIntList L = null;
+    for (int end = items.length; end > 0; end -= CHUNK_SIZE) {
+      int n = Math.min(CHUNK_SIZE, end);
+      int[] a = new int[CHUNK_SIZE];
+      System.arraycopy(items, end - n, a, CHUNK_SIZE - n, n);
+      L = new UnrolledIntList(new Chunk(a, CHUNK_SIZE - n, L), CHUNK_SIZE - n);
+    }
+    return L;
+  }
+
+  /** Returns an UnrolledIntList with the same items as L. */
+  public static UnrolledIntList fromIntList(IntList L) {
+    if (L == null) {
+      return null;
+    }
+    int[] items = new int[L.size()];
+    int i = 0;
+    for (IntList p = L; p != null; p = p.rest) {
+      items[i] = p.first;
+      i++;
+    }
+    return of(items);
+  }
+
+  /** Returns an IntList with the same items as this list. */
+  public IntList toIntList() {
+    IntList result = new IntList(0, null);
+    IntList[] last = {result};
+    forEach(x -> {
+      last[0].rest = new IntList(x, null);
+      last[0] = last[0].rest;
+    });
+    return result.rest;
+  }
+
+  public int first() {
+    return chunk.items[offset];
+  }
+
+  public void setFirst(int f) {
+    chunk.items[offset] = f;
+  }
+
+  /** Returns the list of every item after the first, or null if there is none. */
+  public UnrolledIntList rest() {
+    if (offset + 1 < chunk.items.length) {
+      return new UnrolledIntList(chunk, offset + 1);
+    }
+    return chunk.next;
+  }
+
+  /** Return the size of the list, counting a chunk at a time. */
+  public int size() {
+    int totalSize = 0;
+    for (UnrolledIntList p = this; p != null; p = p.chunk.next) {
+      totalSize += p.chunk.items.length - p.offset;
+    }
+    return totalSize;
+  }
+
+  /** Returns the ith item of this list, skipping whole chunks at a time. */
+  public int get(int i) {
+    if (i < 0) {
+      throw new IndexOutOfBoundsException("No item " + i);
+    }
+    int j = i;
+    for (UnrolledIntList p = this; p != null; p = p.chunk.next) {
+      int n = p.chunk.items.length - p.offset;
+      if (j < n) {
+        return p.chunk.items[p.offset + j];
+      }
+      j -= n;
+    }
+    throw new IndexOutOfBoundsException("No item " + i);
+  }
+
+  /** Calls action on each item in order, reading a chunk at a time. */
+  public void forEach(IntConsumer action) {
+    for (UnrolledIntList p = this; p != null; p = p.chunk.next) {
+      int[] items = p.chunk.items;
+      for (int i = p.offset; i < items.length; i++) {
+        action.accept(items[i]);
+      }
+    }
+  }
+
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    forEach(x -> {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(x);
+    });
+    return sb.toString();
+  }
+
+  /**
+   * Returns a new list identical to L, but with each item incremented
+   * by x. L is not changed. The new list has one full chunk per chunk
+   * of L.
+   */
+  public static UnrolledIntList incrList(UnrolledIntList L, int x) {
+    if (L == null) {
+      return null;
+    }
+    UnrolledIntList result = null;
+    Chunk last = null;
+    for (UnrolledIntList p = L; p != null; p = p.chunk.next) {
+      int[] items = p.chunk.items;
+      int[] a = new int[items.length - p.offset];
+      for (int i = 0; i < a.length; i++) {
+        a[i] = items[p.offset + i] + x;
+      }
+      UnrolledIntList segment = new UnrolledIntList(new Chunk(a, 0, null), 0);
+      if (last == null) {
+        result = segment;
+      } else {
+        last.next = segment;
+      }
+      last = segment.chunk;
+    }
+    return result;
+  }
+
+  /**
+   * Returns L with each item incremented by x, changing L in place.
+   */
+  public static UnrolledIntList dincrList(UnrolledIntList L, int x) {
+    for (UnrolledIntList p = L; p != null; p = p.chunk.next) {
+      int[] items = p.chunk.items;
+      for (int i = p.offset; i < items.length; i++) {
+        items[i] += x;
+      }
+    }
+    return L;
+  }
+
+  public static void main(String[] args) {
+    UnrolledIntList L = new UnrolledIntList(15, null);
+    L = new UnrolledIntList(10, L);
+    L = new UnrolledIntList(5, L);
+
+    System.out.println(L.size());
+    System.out.println(L.get(2));
+    System.out.println(L.rest().first());
+
+    UnrolledIntList L2 = incrList(L, 3);
+    System.out.println(L2);
+    System.out.println(dincrList(L, 3));
+
+    /* Recursive IntList methods overflow the stack long before this. */
+    int n = 1000000;
+    UnrolledIntList big = null;
+    for (int i = n; i > 0; i--) {
+      big = new UnrolledIntList(i, big);
+    }
+    System.out.println(big.size());
+    System.out.println(big.get(n - 1));
+    System.out.println(incrList(big, 1).get(n - 1));
+    System.out.println(big.toString().length());
+
+    long[] sum = {0};
+    big.forEach(x -> sum[0] += x);
+    System.out.println(sum[0]);
+  }
+}
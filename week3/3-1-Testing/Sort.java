@@ -1,23 +1,494 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class Sort {
 
+    /**
+     * Runs shorter than this are extended with insertion sort before
+     * merging, since insertion sort beats merging on tiny inputs.
+     */
+    private static final int MIN_RUN = 32;
+
+    /**
+     * Default size below which parallelSort stops splitting and sorts
+     * (or merges) sequentially.
+     */
+    public static final int DEFAULT_PARALLEL_CUTOFF = 1 << 13;
+
+    /** Number of distinct characters radixSort buckets on (extended ASCII). */
+    private static final int RADIX = 256;
+
+    /** MSD radix sort switches to insertion sort on ranges this small. */
+    private static final int RADIX_INSERTION_CUTOFF = 15;
+
+    /**
+     * MSD radix sort hands ranges still unsorted after this many
+     * characters to the comparison sort. That bounds the recursion depth
+     * on long shared prefixes, and saves a counting pass per character.
+     */
+    private static final int RADIX_MAX_DEPTH = 64;
+
     /**
      * Sorts strings destructively.
      */
     public static void sort(String[] x) {
-        sort(x, 0);
+        sort(x, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts x destructively using the order given by c. The sort is
+     * stable, and input that is already made of a few sorted (or
+     * reverse sorted) runs is sorted in close to linear time.
+     */
+    public static <T> void sort(T[] x, Comparator<? super T> c) {
+        sort(x, 0, x.length, c);
+    }
+
+    /**
+     * Sorts strings destructively by their characters instead of by
+     * comparisons. Uses LSD radix sort when every string has the same
+     * length and MSD radix sort otherwise. Gives the same result as sort;
+     * strings with characters outside extended ASCII fall back to sort.
+     */
+    public static void radixSort(String[] x) {
+        if (x.length < 2) {
+            return;
+        }
+        int width = x[0].length();
+        boolean fixedWidth = true;
+        for (String s : x) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) >= RADIX) {
+                    sort(x);
+                    return;
+                }
+            }
+            if (s.length() != width) {
+                fixedWidth = false;
+            }
+        }
+
+        String[] aux = new String[x.length];
+        if (fixedWidth) {
+            lsdSort(x, width, aux);
+        } else {
+            msdSort(x, 0, x.length, 0, aux);
+        }
+    }
+
+    /**
+     * Sorts strings that are all width characters long with one stable
+     * counting sort per character, from the last character to the first.
+     */
+    private static void lsdSort(String[] x, int width, String[] aux) {
+        int[] count = new int[RADIX + 1];
+        for (int d = width - 1; d >= 0; d--) {
+            Arrays.fill(count, 0);
+            for (String s : x) {
+                count[s.charAt(d) + 1]++;
+            }
+            for (int r = 0; r < RADIX; r++) {
+                count[r + 1] += count[r];
+            }
+            for (String s : x) {
+                aux[count[s.charAt(d)]++] = s;
+            }
+            System.arraycopy(aux, 0, x, 0, x.length);
+        }
+    }
+
+    /**
+     * Returns the dth character of s, or -1 if s is too short, so that
+     * shorter strings sort before their extensions.
+     */
+    private static int charAt(String s, int d) {
+        if (d < s.length()) {
+            return s.charAt(d);
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts x[lo, hi), whose strings all share their first d characters,
+     * by counting sort on character d and then recursing on each bucket.
+     */
+    private static void msdSort(String[] x, int lo, int hi, int d, String[] aux) {
+        if (hi - lo <= RADIX_INSERTION_CUTOFF) {
+            insertionSortFrom(x, lo, hi, d);
+            return;
+        }
+        if (d >= RADIX_MAX_DEPTH) {
+            sort(x, lo, hi, (a, b) -> compareFrom(a, b, d));
+            return;
+        }
+
+        /* Bucket 0 holds strings that end before d, bucket r + 1 holds char r. */
+        int[] count = new int[RADIX + 2];
+        for (int i = lo; i < hi; i++) {
+            count[charAt(x[i], d) + 2]++;
+        }
+        for (int r = 0; r < RADIX + 1; r++) {
+            count[r + 1] += count[r];
+        }
+        for (int i = lo; i < hi; i++) {
+            aux[count[charAt(x[i], d) + 1]++] = x[i];
+        }
+        System.arraycopy(aux, 0, x, lo, hi - lo);
+
+        /* x[lo + count[r], lo + count[r + 1]) now holds the strings with
+         * char r at d. Strings that end before d are already in place. */
+        for (int r = 0; r < RADIX; r++) {
+            int bucketLo = lo + count[r];
+            int bucketHi = lo + count[r + 1];
+            if (bucketHi - bucketLo > 1) {
+                msdSort(x, bucketLo, bucketHi, d + 1, aux);
+            }
+        }
+    }
+
+    /**
+     * Insertion sorts x[lo, hi), comparing only from character d on since
+     * every string in the range shares the first d characters.
+     */
+    private static void insertionSortFrom(String[] x, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && lessFrom(x[j], x[j - 1], d); j--) {
+                swap(x, j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a is less than b, looking only from character d on.
+     */
+    private static boolean lessFrom(String a, String b, int d) {
+        return compareFrom(a, b, d) < 0;
+    }
+
+    /**
+     * Compares a and b like compareTo, looking only from character d on.
+     */
+    private static int compareFrom(String a, String b, int d) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = d; i < n; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return a.charAt(i) - b.charAt(i);
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Sorts strings destructively, splitting the work across the
+     * common ForkJoinPool. Gives the same result as sort.
+     */
+    public static void parallelSort(String[] x) {
+        parallelSort(x, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts x destructively and stably using the order given by c,
+     * splitting the work across the common ForkJoinPool.
+     */
+    public static <T> void parallelSort(T[] x, Comparator<? super T> c) {
+        parallelSort(x, c, DEFAULT_PARALLEL_CUTOFF);
     }
 
     /**
-     * Sorts x starting at position start.
+     * Sorts x like parallelSort(x, c), but ranges of at most cutoff
+     * items are sorted and merged sequentially.
      */
-    private static void sort(String[] x, int start) {
-        if (start == x.length - 1) {
+    public static <T> void parallelSort(T[] x, Comparator<? super T> c, int cutoff) {
+        if (cutoff < 2) {
+            throw new IllegalArgumentException("cutoff must be at least 2");
+        }
+        if (x.length <= cutoff || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            sort(x, c);
             return;
         }
+        T[] aux = (T[]) new Object[x.length];
+        ForkJoinPool.commonPool().invoke(new SortTask<>(x, aux, 0, x.length, c, cutoff));
+    }
+
+    /**
+     * Sorts x[lo, hi) by sorting both halves in parallel, copying them
+     * into aux, and merging them back into x in parallel.
+     */
+    private static class SortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] x;
+        private final T[] aux;
+        private final int lo;
+        private final int hi;
+        private final Comparator<? super T> c;
+        private final int cutoff;
+
+        SortTask(T[] x, T[] aux, int lo, int hi, Comparator<? super T> c, int cutoff) {
+            this.x = x;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.c = c;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= cutoff) {
+                sort(x, lo, hi, c);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask<>(x, aux, lo, mid, c, cutoff),
+                      new SortTask<>(x, aux, mid, hi, c, cutoff));
+            if (c.compare(x[mid - 1], x[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(x, lo, aux, lo, hi - lo);
+            new MergeTask<>(aux, x, lo, mid, mid, hi, lo, c, cutoff).compute();
+        }
+    }
+
+    /**
+     * Merges the sorted ranges src[lo1, hi1) and src[lo2, hi2) into dest
+     * starting at destLo. Splits the larger range at its middle item,
+     * binary searches the other range for where that item goes, and
+     * merges the two halves in parallel. Ties go to the first range.
+     */
+    private static class MergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final T[] dest;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int destLo;
+        private final Comparator<? super T> c;
+        private final int cutoff;
+
+        MergeTask(T[] src, T[] dest, int lo1, int hi1, int lo2, int hi2, int destLo,
+                  Comparator<? super T> c, int cutoff) {
+            this.src = src;
+            this.dest = dest;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.destLo = destLo;
+            this.c = c;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= cutoff) {
+                mergeInto(src, lo1, hi1, lo2, hi2, dest, destLo, c);
+                return;
+            }
+
+            int mid1;
+            int mid2;
+            if (n1 >= n2) {
+                /* Items of the second range equal to the split item
+                 * must stay after it, so search for the first >= it. */
+                mid1 = (lo1 + hi1) >>> 1;
+                mid2 = lowerBound(src, lo2, hi2, src[mid1], c);
+            } else {
+                /* Items of the first range equal to the split item
+                 * must stay before it, so search for the first > it. */
+                mid2 = (lo2 + hi2) >>> 1;
+                mid1 = upperBound(src, lo1, hi1, src[mid2], c);
+            }
+            int destMid = destLo + (mid1 - lo1) + (mid2 - lo2);
+            invokeAll(new MergeTask<>(src, dest, lo1, mid1, lo2, mid2, destLo, c, cutoff),
+                      new MergeTask<>(src, dest, mid1, hi1, mid2, hi2, destMid, c, cutoff));
+        }
+    }
+
+    /**
+     * Returns the first index in the sorted range x[lo, hi) whose item
+     * is not less than key.
+     */
+    private static <T> int lowerBound(T[] x, int lo, int hi, T key, Comparator<? super T> c) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(x[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index in the sorted range x[lo, hi) whose item
+     * is greater than key.
+     */
+    private static <T> int upperBound(T[] x, int lo, int hi, T key, Comparator<? super T> c) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(x[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
 
-        int smallestIndex = findSmallestIndex(x, start);
-        swap(x, start, smallestIndex);
-        sort(x, start + 1);
+    /**
+     * Merges the sorted ranges src[lo1, hi1) and src[lo2, hi2) into
+     * dest starting at k. Ties go to the first range.
+     */
+    private static <T> void mergeInto(T[] src, int lo1, int hi1, int lo2, int hi2,
+                                      T[] dest, int k, Comparator<? super T> c) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            if (c.compare(src[lo2], src[lo1]) < 0) {
+                dest[k] = src[lo2];
+                lo2++;
+            } else {
+                dest[k] = src[lo1];
+                lo1++;
+            }
+            k++;
+        }
+        System.arraycopy(src, lo1, dest, k, hi1 - lo1);
+        System.arraycopy(src, lo2, dest, k + hi1 - lo1, hi2 - lo2);
+    }
+
+    /**
+     * Sorts x[lo, hi) with a natural merge sort: cut the range into
+     * ascending runs, then merge neighbouring runs until one is left.
+     */
+    private static <T> void sort(T[] x, int lo, int hi, Comparator<? super T> c) {
+        int n = hi - lo;
+        if (n < 2) {
+            return;
+        }
+
+        /* Every run but the last is at least MIN_RUN long. */
+        int[] runEnds = new int[n / MIN_RUN + 1];
+        int runCount = 0;
+        int start = lo;
+        while (start < hi) {
+            int end = findRunEnd(x, start, hi, c);
+            if (end - start < MIN_RUN) {
+                int forcedEnd = Math.min(hi, start + MIN_RUN);
+                insertionSort(x, start, end, forcedEnd, c);
+                end = forcedEnd;
+            }
+            runEnds[runCount] = end;
+            runCount++;
+            start = end;
+        }
+
+        T[] aux = null;
+        while (runCount > 1) {
+            if (aux == null) {
+                aux = (T[]) new Object[n];
+            }
+            int newCount = 0;
+            int runStart = lo;
+            for (int i = 0; i < runCount; i += 2) {
+                if (i + 1 < runCount) {
+                    merge(x, runStart, runEnds[i], runEnds[i + 1], c, aux);
+                    runEnds[newCount] = runEnds[i + 1];
+                    runStart = runEnds[i + 1];
+                } else {
+                    runEnds[newCount] = runEnds[i];
+                }
+                newCount++;
+            }
+            runCount = newCount;
+        }
+    }
+
+    /**
+     * Returns the end of the run starting at start. A strictly
+     * descending run is reversed in place so every run is ascending
+     * (strictly, so that reversing never reorders equal items).
+     */
+    private static <T> int findRunEnd(T[] x, int start, int hi, Comparator<? super T> c) {
+        int end = start + 1;
+        if (end == hi) {
+            return end;
+        }
+
+        if (c.compare(x[end], x[start]) < 0) {
+            end++;
+            while (end < hi && c.compare(x[end], x[end - 1]) < 0) {
+                end++;
+            }
+            for (int i = start, j = end - 1; i < j; i++, j--) {
+                swap(x, i, j);
+            }
+        } else {
+            end++;
+            while (end < hi && c.compare(x[end], x[end - 1]) >= 0) {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Extends the sorted range x[lo, sortedEnd) to x[lo, hi) by inserting
+     * each later item after any items equal to it.
+     */
+    private static <T> void insertionSort(T[] x, int lo, int sortedEnd, int hi,
+                                          Comparator<? super T> c) {
+        for (int i = sortedEnd; i < hi; i++) {
+            T item = x[i];
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(item, x[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(x, left, x, left + 1, i - left);
+            x[left] = item;
+        }
+    }
+
+    /**
+     * Merges the sorted ranges x[lo, mid) and x[mid, hi), using aux to
+     * hold a copy of the left range. Ties go to the left range.
+     */
+    private static <T> void merge(T[] x, int lo, int mid, int hi,
+                                  Comparator<? super T> c, T[] aux) {
+        /* Already in order, e.g. neighbouring runs of a sorted input. */
+        if (c.compare(x[mid - 1], x[mid]) <= 0) {
+            return;
+        }
+
+        int leftLength = mid - lo;
+        System.arraycopy(x, lo, aux, 0, leftLength);
+        int i = 0;
+        int j = mid;
+        int k = lo;
+        while (i < leftLength && j < hi) {
+            if (c.compare(x[j], aux[i]) < 0) {
+                x[k] = x[j];
+                j++;
+            } else {
+                x[k] = aux[i];
+                i++;
+            }
+            k++;
+        }
+        System.arraycopy(aux, i, x, k, leftLength - i);
     }
 
     /**
@@ -36,8 +507,8 @@ public class Sort {
     /**
      * Swap item at position a with item at position b.
      */
-    public static void swap(String[] x, int a, int b) {
-        String tmp = x[a];
+    public static <T> void swap(T[] x, int a, int b) {
+        T tmp = x[a];
         x[a] = x[b];
         x[b] = tmp;
     }
@@ -1,6 +1,10 @@
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
 /**
  * Tests the Sort class.
  */
@@ -56,4 +60,132 @@ public class TestSort {
         assertArrayEquals(expected, actual);
     }
 
+    /**
+     * Test the Sort.sort() method with a Comparator.
+     */
+    @Test
+    public void testSortComparator() {
+        String[] actual = {"i", "have", "an", "egg"};
+        String[] expected = {"i", "an", "egg", "have"};
+        Sort.sort(actual, Comparator.comparing(String::length));
+        assertArrayEquals(expected, actual);
+
+        Integer[] actual2 = {3, 1, 2};
+        Integer[] expected2 = {3, 2, 1};
+        Sort.sort(actual2, Comparator.reverseOrder());
+        assertArrayEquals(expected2, actual2);
+    }
+
+    /**
+     * Test the Sort.sort() method on inputs far too long for a
+     * recursive selection sort.
+     */
+    @Test
+    public void testSortLarge() {
+        Random r = new Random(61);
+        String[] actual = new String[100000];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = Integer.toString(r.nextInt(50000), 36);
+        }
+        String[] expected = actual.clone();
+        Arrays.sort(expected);
+        Sort.sort(actual);
+        assertArrayEquals(expected, actual);
+
+        /* Already sorted, and reverse sorted. */
+        Sort.sort(actual);
+        assertArrayEquals(expected, actual);
+        for (int i = 0, j = actual.length - 1; i < j; i++, j--) {
+            Sort.swap(actual, i, j);
+        }
+        Sort.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Test that Sort.parallelSort() matches Sort.sort().
+     */
+    @Test
+    public void testParallelSort() {
+        String[] actual = {"i", "have", "an", "egg"};
+        String[] expected = {"an", "egg", "have", "i"};
+        Sort.parallelSort(actual);
+        assertArrayEquals(expected, actual);
+
+        Random r = new Random(61);
+        String[] input = new String[200000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = Integer.toString(r.nextInt(50000), 36);
+        }
+        String[] expected2 = input.clone();
+        Sort.sort(expected2);
+        String[] actual2 = input.clone();
+        Sort.parallelSort(actual2, Comparator.naturalOrder(), 64);
+        assertArrayEquals(expected2, actual2);
+
+        /* Stability: equal-length strings keep their input order. */
+        Comparator<String> byLength = Comparator.comparing(String::length);
+        String[] expected3 = input.clone();
+        Sort.sort(expected3, byLength);
+        String[] actual3 = input.clone();
+        Sort.parallelSort(actual3, byLength, 64);
+        assertArrayEquals(expected3, actual3);
+    }
+
+    /**
+     * Test that Sort.radixSort() matches Sort.sort(), on both fixed-width
+     * (LSD) and variable-width (MSD) inputs.
+     */
+    @Test
+    public void testRadixSort() {
+        String[] actual = {"i", "have", "an", "egg"};
+        String[] expected = {"an", "egg", "have", "i"};
+        Sort.radixSort(actual);
+        assertArrayEquals(expected, actual);
+
+        String[] actual2 = {"deck", "cat", "bed", "apple", "", "ca", "cat"};
+        String[] expected2 = {"", "apple", "bed", "ca", "cat", "cat", "deck"};
+        Sort.radixSort(actual2);
+        assertArrayEquals(expected2, actual2);
+
+        String[] actual3 = {"dab", "cab", "fad", "bad", "dad", "ebb", "ace"};
+        String[] expected3 = {"ace", "bad", "cab", "dab", "dad", "ebb", "fad"};
+        Sort.radixSort(actual3);
+        assertArrayEquals(expected3, actual3);
+
+        Random r = new Random(61);
+        String[] words = new String[100000];
+        for (int i = 0; i < words.length; i++) {
+            char[] word = new char[1 + r.nextInt(10)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('a' + r.nextInt(26));
+            }
+            words[i] = new String(word);
+        }
+        String[] expected4 = words.clone();
+        Sort.sort(expected4);
+        Sort.radixSort(words);
+        assertArrayEquals(expected4, words);
+    }
+
+    /**
+     * Strings sharing a very long prefix must not recurse once per
+     * shared character.
+     */
+    @Test
+    public void testRadixSortLongSharedPrefix() {
+        char[] prefix = new char[200000];
+        Arrays.fill(prefix, 'a');
+        Random r = new Random(61);
+        String[] words = new String[40];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = new String(prefix) + r.nextInt(1000);
+        }
+        words[0] = new String(prefix);
+        String[] expected = words.clone();
+        Arrays.sort(expected);
+        Sort.radixSort(words);
+        assertArrayEquals(expected, words);
+    }
+
 }
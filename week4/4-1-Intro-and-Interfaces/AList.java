@@ -1,14 +1,31 @@
 /* The next item ALWAYS goes in the size position */
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 public class AList<Item> implements List61B<Item>{
     /* the stored integers */
     private Item[] items;
     private int size;
 
     private static int RFACTOR = 2;
+    /* How many times bigger the backing array gets when it fills up. */
+    private final int rfactor;
 
     /** Creates an empty list. */
     public AList() {
+        this(RFACTOR);
+    }
+
+    /** Creates an empty list whose backing array grows by the
+     * given factor whenever it fills up. */
+    public AList(int rfactor) {
+        if (rfactor < 2) {
+            throw new IllegalArgumentException("rfactor must be at least 2");
+        }
+        this.rfactor = rfactor;
         size = 0;
         items = (Item[]) new Object[100];
     }
@@ -25,7 +42,7 @@ public class AList<Item> implements List61B<Item>{
     @Override
     public void addLast(Item x) {
         if (size == items.length) {
-            resize(size * RFACTOR);
+            resize(size * rfactor);
         }
 
         items[size] = x;
@@ -88,4 +105,46 @@ public class AList<Item> implements List61B<Item>{
         return get(0);
     }
 
+    /** Returns an iterator that reads the backing array directly. */
+    @Override
+    public Iterator<Item> iterator() {
+        return new AListIterator();
+    }
+
+    private class AListIterator implements Iterator<Item> {
+        private int curIdx;
+
+        public AListIterator() {
+            curIdx = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return curIdx < size;
+        }
+
+        @Override
+        public Item next() {
+            Item returnItem = items[curIdx];
+            curIdx++;
+            return returnItem;
+        }
+    }
+
+    /** Calls action on every item, front to back, with a plain loop
+     * over the backing array. */
+    @Override
+    public void forEach(Consumer<? super Item> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(items[i]);
+        }
+    }
+
+    /** Returns a sized, splittable view of the backing array, so streams
+     * over an AList know their length and can split it evenly. */
+    @Override
+    public Spliterator<Item> spliterator() {
+        return Arrays.spliterator(items, 0, size);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/* A circular-buffer list: items wrap around the end of the backing
+ * array, so adding or removing at either end never shifts anything. */
+
+//             front
+//               v
+// items: [c d 0 a b]
+// size: 4, list: a b c d
+
+/* Invariants:
+1. The ith item in the list is at items[(front + i) % items.length].
+2. size is always the number of items in the list.
+3. items.length is always a power of two, so % can be done with a mask.
+*/
+
+public class ArrayDeque61B<Item> implements List61B<Item> {
+    private Item[] items;
+    private int front;
+    private int size;
+
+    private static final int MIN_CAPACITY = 8;
+
+    /** Creates an empty list. */
+    public ArrayDeque61B() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+        front = 0;
+        size = 0;
+    }
+
+    /** Returns the array index of the ith item in the list. */
+    private int slot(int i) {
+        return (front + i) & (items.length - 1);
+    }
+
+    /** Resize our backing array so that it is of the given
+     * capacity, unwrapping the items so front is 0 again. */
+    private void resize(int capacity) {
+        Item[] a = (Item[]) new Object[capacity];
+        int firstPart = Math.min(size, items.length - front);
+        System.arraycopy(items, front, a, 0, firstPart);
+        System.arraycopy(items, 0, a, firstPart, size - firstPart);
+        items = a;
+        front = 0;
+    }
+
+    /** Grows the backing array if there is no room for another item. */
+    private void growIfFull() {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+    }
+
+    /** Halves the backing array once it is only a quarter full. */
+    private void shrinkIfSparse() {
+        if (items.length > MIN_CAPACITY && size < items.length / 4) {
+            resize(items.length / 2);
+        }
+    }
+
+    /** Inserts X into the back of the list. */
+    @Override
+    public void addLast(Item x) {
+        growIfFull();
+        items[slot(size)] = x;
+        size = size + 1;
+    }
+
+    /** Inserts an item at the front. */
+    @Override
+    public void addFirst(Item x) {
+        growIfFull();
+        front = (front - 1) & (items.length - 1);
+        items[front] = x;
+        size = size + 1;
+    }
+
+    /** Returns the item from the back of the list. */
+    @Override
+    public Item getLast() {
+        return get(size - 1);
+    }
+
+    /** Gets an item from the front. */
+    @Override
+    public Item getFirst() {
+        return get(0);
+    }
+
+    /** Gets the ith item in the list (0 is the front). */
+    @Override
+    public Item get(int i) {
+        return items[slot(i)];
+    }
+
+    /** Returns the number of items in the list. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Deletes item from back of the list and
+     * returns deleted item. */
+    @Override
+    public Item removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        int last = slot(size - 1);
+        Item itemToReturn = items[last];
+        items[last] = null; // to avoid loitering
+        size = size - 1;
+        shrinkIfSparse();
+        return itemToReturn;
+    }
+
+    /** Deletes item from front of the list and
+     * returns deleted item. */
+    public Item removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        Item itemToReturn = items[front];
+        items[front] = null;
+        front = (front + 1) & (items.length - 1);
+        size = size - 1;
+        shrinkIfSparse();
+        return itemToReturn;
+    }
+
+    /** Inserts item into given position. Only the items on the
+     * shorter side of position get shifted. */
+    @Override
+    public void insert(Item x, int position) {
+        if (position < size / 2) {
+            addFirst(x);
+            for (int i = 0; i < position; i++) {
+                items[slot(i)] = items[slot(i + 1)];
+            }
+        } else {
+            addLast(x);
+            for (int i = size - 1; i > position; i--) {
+                items[slot(i)] = items[slot(i - 1)];
+            }
+        }
+        items[slot(position)] = x;
+    }
+
+}
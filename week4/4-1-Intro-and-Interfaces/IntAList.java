@@ -0,0 +1,131 @@
+/* An AList that stores ints directly in an int[] instead of boxing
+ * each one into an Integer. The List61B methods still work, but the
+ * *Int methods below never allocate. */
+
+public class IntAList implements List61B<Integer> {
+    private int[] items;
+    private int size;
+
+    private static int RFACTOR = 2;
+
+    /** Creates an empty list. */
+    public IntAList() {
+        size = 0;
+        items = new int[100];
+    }
+
+    /** Resize our backing array so that it is
+     * of the given capacity. */
+    private void resize(int capacity) {
+        int[] a = new int[capacity];
+        System.arraycopy(items, 0, a, 0, size);
+        items = a;
+    }
+
+    /** Inserts X into the back of the list without boxing. */
+    public void addLastInt(int x) {
+        if (size == items.length) {
+            resize(size * RFACTOR);
+        }
+
+        items[size] = x;
+        size = size + 1;
+    }
+
+    /** Returns the int from the back of the list. */
+    public int getLastInt() {
+        return items[size - 1];
+    }
+
+    /** Gets the ith int in the list (0 is the front). */
+    public int getInt(int i) {
+        return items[i];
+    }
+
+    /** Deletes int from back of the list and
+     * returns deleted int. */
+    public int removeLastInt() {
+        int itemToReturn = getLastInt();
+        size = size - 1;
+        return itemToReturn;
+    }
+
+    /** Inserts x into given position, shifting later items back. */
+    public void insertInt(int x, int position) {
+        if (size == items.length) {
+            resize(size * RFACTOR);
+        }
+        System.arraycopy(items, position, items, position + 1, size - position);
+        items[position] = x;
+        size = size + 1;
+    }
+
+    /** Inserts an int at the front. */
+    public void addFirstInt(int x) {
+        insertInt(x, 0);
+    }
+
+    /** Gets an int from the front. */
+    public int getFirstInt() {
+        return getInt(0);
+    }
+
+    /** The list holds ints, so there's no room for null. */
+    private static void checkNotNull(Integer x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Can't add null");
+        }
+    }
+
+    /** Boxing version of addLastInt. */
+    @Override
+    public void addLast(Integer x) {
+        checkNotNull(x);
+        addLastInt(x);
+    }
+
+    /** Boxing version of getLastInt. */
+    @Override
+    public Integer getLast() {
+        return getLastInt();
+    }
+
+    /** Boxing version of getInt. */
+    @Override
+    public Integer get(int i) {
+        return getInt(i);
+    }
+
+    /** Returns the number of items in the list. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Boxing version of removeLastInt. */
+    @Override
+    public Integer removeLast() {
+        return removeLastInt();
+    }
+
+    /** Boxing version of insertInt. */
+    @Override
+    public void insert(Integer x, int position) {
+        checkNotNull(x);
+        insertInt(x, position);
+    }
+
+    /** Boxing version of addFirstInt. */
+    @Override
+    public void addFirst(Integer x) {
+        checkNotNull(x);
+        addFirstInt(x);
+    }
+
+    /** Boxing version of getFirstInt. */
+    @Override
+    public Integer getFirst() {
+        return getFirstInt();
+    }
+
+}
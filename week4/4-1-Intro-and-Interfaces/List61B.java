@@ -1,4 +1,6 @@
-public interface List61B<Item> {
+import java.util.Iterator;
+
+public interface List61B<Item> extends Iterable<Item> {
 
     /** Inserts X into the back of the list. */
     public void addLast(Item x);
@@ -26,12 +28,36 @@ public interface List61B<Item> {
     /** Gets an item from the front. */
     public Item getFirst();
 
+    /**
+     * Returns an iterator over the list from front to back. This
+     * default walks with get(i), which is only linear for lists with
+     * O(1) get; linked lists should override it.
+     */
+    @Override
+    default public Iterator<Item> iterator() {
+        return new Iterator<Item>() {
+            private int curIdx = 0;
+
+            @Override
+            public boolean hasNext() {
+                return curIdx < size();
+            }
+
+            @Override
+            public Item next() {
+                Item returnItem = get(curIdx);
+                curIdx++;
+                return returnItem;
+            }
+        };
+    }
+
     /**
      * Prints out the entire list.
      */
     default public void print() {
-        for (int i = 0, n = size(); i < n; i++) {
-            System.out.print(get(i) + " ");
+        for (Item x : this) {
+            System.out.print(x + " ");
         }
         System.out.println();
     }
@@ -0,0 +1,131 @@
+/* An AList that stores longs directly in a long[] instead of boxing
+ * each one into a Long. The List61B methods still work, but the
+ * *Long methods below never allocate. */
+
+public class LongAList implements List61B<Long> {
+    private long[] items;
+    private int size;
+
+    private static int RFACTOR = 2;
+
+    /** Creates an empty list. */
+    public LongAList() {
+        size = 0;
+        items = new long[100];
+    }
+
+    /** Resize our backing array so that it is
+     * of the given capacity. */
+    private void resize(int capacity) {
+        long[] a = new long[capacity];
+        System.arraycopy(items, 0, a, 0, size);
+        items = a;
+    }
+
+    /** Inserts X into the back of the list without boxing. */
+    public void addLastLong(long x) {
+        if (size == items.length) {
+            resize(size * RFACTOR);
+        }
+
+        items[size] = x;
+        size = size + 1;
+    }
+
+    /** Returns the long from the back of the list. */
+    public long getLastLong() {
+        return items[size - 1];
+    }
+
+    /** Gets the ith long in the list (0 is the front). */
+    public long getLong(int i) {
+        return items[i];
+    }
+
+    /** Deletes long from back of the list and
+     * returns deleted long. */
+    public long removeLastLong() {
+        long itemToReturn = getLastLong();
+        size = size - 1;
+        return itemToReturn;
+    }
+
+    /** Inserts x into given position, shifting later items back. */
+    public void insertLong(long x, int position) {
+        if (size == items.length) {
+            resize(size * RFACTOR);
+        }
+        System.arraycopy(items, position, items, position + 1, size - position);
+        items[position] = x;
+        size = size + 1;
+    }
+
+    /** Inserts a long at the front. */
+    public void addFirstLong(long x) {
+        insertLong(x, 0);
+    }
+
+    /** Gets a long from the front. */
+    public long getFirstLong() {
+        return getLong(0);
+    }
+
+    /** The list holds longs, so there's no room for null. */
+    private static void checkNotNull(Long x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Can't add null");
+        }
+    }
+
+    /** Boxing version of addLastLong. */
+    @Override
+    public void addLast(Long x) {
+        checkNotNull(x);
+        addLastLong(x);
+    }
+
+    /** Boxing version of getLastLong. */
+    @Override
+    public Long getLast() {
+        return getLastLong();
+    }
+
+    /** Boxing version of getLong. */
+    @Override
+    public Long get(int i) {
+        return getLong(i);
+    }
+
+    /** Returns the number of items in the list. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Boxing version of removeLastLong. */
+    @Override
+    public Long removeLast() {
+        return removeLastLong();
+    }
+
+    /** Boxing version of insertLong. */
+    @Override
+    public void insert(Long x, int position) {
+        checkNotNull(x);
+        insertLong(x, position);
+    }
+
+    /** Boxing version of addFirstLong. */
+    @Override
+    public void addFirst(Long x) {
+        checkNotNull(x);
+        addFirstLong(x);
+    }
+
+    /** Boxing version of getFirstLong. */
+    @Override
+    public Long getFirst() {
+        return getFirstLong();
+    }
+
+}
@@ -1,6 +1,8 @@
 /* Represent a list of stuff, where all the "list" work is delegated
  * to a naked recursive data structure. */
 
+import java.util.Iterator;
+
 public class SLList<Blorp> implements List61B<Blorp>{
     public class Node {
         public Blorp item;     /* Equivalent of first */
@@ -13,18 +15,22 @@ public class SLList<Blorp> implements List61B<Blorp>{
     }
 
     private Node sentinel;
+    /* The back node of the list, or sentinel if the list is empty. */
+    private Node last;
     private int size;
 
     /** Creates an empty list. */
     public SLList() {
         size = 0;
         sentinel = new Node(null, null);
+        last = sentinel;
     }
 
     public SLList(Blorp x) {
         size = 1;
         sentinel = new Node(null, null);
         sentinel.next = new Node(x, null);
+        last = sentinel.next;
     }
 
     /** Adds an item of the front. */
@@ -33,6 +39,9 @@ public class SLList<Blorp> implements List61B<Blorp>{
         Node oldFrontNode = sentinel.next;
         Node newNode = new Node(x, oldFrontNode);
         sentinel.next = newNode;
+        if (last == sentinel) {
+            last = newNode;
+        }
         size += 1;
     }
 
@@ -46,26 +55,13 @@ public class SLList<Blorp> implements List61B<Blorp>{
     @Override
     public void addLast(Blorp x) {
         size += 1;
-
-        Node p = sentinel;
-
-        /* Move p until it reaches the end. */
-        while (p.next != null) {
-            p = p.next;
-        }
-
-        p.next = new Node(x, null);
+        last.next = new Node(x, null);
+        last = last.next;
     }
 
     /** Returns the back node of our list. */
     private Node getLastNode() {
-        Node p = sentinel;
-
-        /* Move p until it reaches the end. */
-        while (p.next != null) {
-            p = p.next;
-        }
-        return p;
+        return last;
     }
 
     /** Returns last item */
@@ -83,12 +79,16 @@ public class SLList<Blorp> implements List61B<Blorp>{
             return null;
         }
 
+        /* Still have to walk to the node before back, since
+         * there are no prev links. */
         Node p = sentinel;
 
         while (p.next != back) {
             p = p.next;
         }
         p.next = null;
+        last = p;
+        size -= 1;
         return back.item;
     }
 
@@ -121,7 +121,8 @@ public class SLList<Blorp> implements List61B<Blorp>{
             return;
         }
 
-        Node currentNode = sentinel.next.next;
+        /* Stop at the node just before position (or at the back). */
+        Node currentNode = sentinel.next;
         while (position > 1 && currentNode.next != null) {
             position -= 1;
             currentNode = currentNode.next;
@@ -129,9 +130,40 @@ public class SLList<Blorp> implements List61B<Blorp>{
 
         Node newNode = new Node(item, currentNode.next);
         currentNode.next = newNode;
+        if (currentNode == last) {
+            last = newNode;
+        }
+        size += 1;
     }
 
 
+    /** Returns an iterator that follows the next links, instead of
+     * List61B's default which would call get(i) for every item. */
+    @Override
+    public Iterator<Blorp> iterator() {
+        return new SLListIterator();
+    }
+
+    private class SLListIterator implements Iterator<Blorp> {
+        private Node p;
+
+        public SLListIterator() {
+            p = sentinel.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return p != null;
+        }
+
+        @Override
+        public Blorp next() {
+            Blorp returnItem = p.item;
+            p = p.next;
+            return returnItem;
+        }
+    }
+
     /** TODO: Add a print method that overrides List61B's inefficient print method. */
     @Override
     public void print() {
@@ -0,0 +1,138 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests ArrayDeque61B against java.util.ArrayList, with the items
+ * wrapped around the end of the array and through several rounds of
+ * doubling and halving.
+ */
+public class TestArrayDeque61B {
+
+    private static void assertMatches(List<Integer> expected, ArrayDeque61B<Integer> L) {
+        assertEquals(expected.size(), L.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), L.get(i));
+        }
+        List<Integer> iterated = new ArrayList<>();
+        for (int x : L) {
+            iterated.add(x);
+        }
+        assertEquals(expected, iterated);
+    }
+
+    /**
+     * Does one random operation on both lists. growing makes adds more
+     * likely than removes, so the lists grow, and otherwise shrink.
+     */
+    private static void randomOp(Random r, boolean growing, List<Integer> expected,
+                                 ArrayDeque61B<Integer> L) {
+        int x = r.nextInt();
+        int op = r.nextInt(10);
+        if (growing ? op < 6 : op < 3) {
+            switch (r.nextInt(3)) {
+                case 0:
+                    L.addFirst(x);
+                    expected.add(0, x);
+                    break;
+                case 1:
+                    L.addLast(x);
+                    expected.add(x);
+                    break;
+                default:
+                    int position = r.nextInt(expected.size() + 1);
+                    L.insert(x, position);
+                    expected.add(position, x);
+            }
+        } else if (op < 9) {
+            if (r.nextBoolean()) {
+                assertEquals(expected.isEmpty() ? null : expected.remove(0), L.removeFirst());
+            } else {
+                assertEquals(expected.isEmpty() ? null : expected.remove(expected.size() - 1),
+                        L.removeLast());
+            }
+        } else if (!expected.isEmpty()) {
+            int i = r.nextInt(expected.size());
+            assertEquals(expected.get(i), L.get(i));
+            assertEquals(expected.get(0), L.getFirst());
+            assertEquals(expected.get(expected.size() - 1), L.getLast());
+        }
+        assertEquals(expected.size(), L.size());
+    }
+
+    /** Grows to a few thousand items and back down to none, three times. */
+    @Test
+    public void testResizeCycles() {
+        ArrayDeque61B<Integer> L = new ArrayDeque61B<>();
+        List<Integer> expected = new ArrayList<>();
+        Random r = new Random(61);
+        for (int cycle = 0; cycle < 3; cycle++) {
+            while (expected.size() < 3000) {
+                randomOp(r, true, expected, L);
+            }
+            assertMatches(expected, L);
+            while (!expected.isEmpty()) {
+                randomOp(r, false, expected, L);
+                if (expected.size() % 100 == 0) {
+                    assertMatches(expected, L);
+                }
+            }
+            assertMatches(expected, L);
+            assertNull(L.removeFirst());
+            assertNull(L.removeLast());
+        }
+    }
+
+    /** Small lists, checked in full after every operation. */
+    @Test
+    public void testSmallLists() {
+        Random r = new Random(62);
+        for (int round = 0; round < 200; round++) {
+            ArrayDeque61B<Integer> L = new ArrayDeque61B<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                randomOp(r, r.nextBoolean(), expected, L);
+                assertMatches(expected, L);
+            }
+        }
+    }
+
+    /**
+     * Inserting at every position of a list that wraps around the end of
+     * its array, on both sides of the middle.
+     */
+    @Test
+    public void testInsertWrapped() {
+        for (int position = 0; position <= 7; position++) {
+            ArrayDeque61B<Integer> L = new ArrayDeque61B<>();
+            List<Integer> expected = new ArrayList<>();
+            /* -3 -2 -1 at the end of the array, then 4 5 6 7 at its start. */
+            for (int i = 1; i <= 3; i++) {
+                L.addFirst(-i);
+                expected.add(0, -i);
+            }
+            for (int i = 4; i <= 7; i++) {
+                L.addLast(i);
+                expected.add(i);
+            }
+            L.insert(100, position);
+            expected.add(position, 100);
+            assertMatches(expected, L);
+
+            /* The array was full, so this one also doubles it. */
+            L.insert(200, position);
+            expected.add(position, 200);
+            assertMatches(expected, L);
+        }
+
+        ArrayDeque61B<Integer> empty = new ArrayDeque61B<>();
+        empty.insert(5, 0);
+        assertEquals(1, empty.size());
+        assertEquals((Integer) 5, empty.getFirst());
+        assertEquals((Integer) 5, empty.getLast());
+    }
+
+}
@@ -0,0 +1,84 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests IntAList against java.util.ArrayList.
+ */
+public class TestIntAList {
+
+    @Test
+    public void testMatchesArrayList() {
+        IntAList L = new IntAList();
+        List<Integer> expected = new ArrayList<>();
+        Random r = new Random(61);
+        /* Enough items to resize the backing array several times. */
+        for (int i = 0; i < 5000; i++) {
+            int x = r.nextInt();
+            switch (r.nextInt(5)) {
+                case 0:
+                    L.addFirstInt(x);
+                    expected.add(0, x);
+                    break;
+                case 1:
+                    int position = r.nextInt(expected.size() + 1);
+                    L.insertInt(x, position);
+                    expected.add(position, x);
+                    break;
+                case 2:
+                    if (!expected.isEmpty()) {
+                        assertEquals((int) expected.remove(expected.size() - 1), L.removeLastInt());
+                    }
+                    break;
+                default:
+                    L.addLastInt(x);
+                    expected.add(x);
+            }
+            assertEquals(expected.size(), L.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals((int) expected.get(i), L.getInt(i));
+            assertEquals(expected.get(i), L.get(i));
+        }
+        assertEquals((int) expected.get(0), L.getFirstInt());
+        assertEquals((int) expected.get(expected.size() - 1), L.getLastInt());
+    }
+
+    @Test
+    public void testBoxedMethods() {
+        IntAList L = new IntAList();
+        for (int i = 0; i < 300; i++) {
+            L.addLast(i * 3);
+        }
+        L.addFirst(-1);
+        L.insert(7, 1);
+        assertEquals((Integer) (-1), L.getFirst());
+        assertEquals((Integer) 7, L.get(1));
+        assertEquals(302, L.size());
+
+        /* The iterator sees the boxed items in order. */
+        List<Integer> seen = new ArrayList<>();
+        for (Integer x : L) {
+            seen.add(x);
+        }
+        assertEquals(302, seen.size());
+        for (int i = 0; i < 300; i++) {
+            assertEquals((Integer) (i * 3), seen.get(i + 2));
+        }
+        assertEquals((Integer) (299 * 3), L.removeLast());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        new IntAList().addLast(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() {
+        new IntAList().insert(null, 0);
+    }
+
+}
@@ -0,0 +1,84 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests LongAList against java.util.ArrayList.
+ */
+public class TestLongAList {
+
+    @Test
+    public void testMatchesArrayList() {
+        LongAList L = new LongAList();
+        List<Long> expected = new ArrayList<>();
+        Random r = new Random(61);
+        /* Enough items to resize the backing array several times. */
+        for (int i = 0; i < 5000; i++) {
+            long x = r.nextLong();
+            switch (r.nextInt(5)) {
+                case 0:
+                    L.addFirstLong(x);
+                    expected.add(0, x);
+                    break;
+                case 1:
+                    int position = r.nextInt(expected.size() + 1);
+                    L.insertLong(x, position);
+                    expected.add(position, x);
+                    break;
+                case 2:
+                    if (!expected.isEmpty()) {
+                        assertEquals((long) expected.remove(expected.size() - 1), L.removeLastLong());
+                    }
+                    break;
+                default:
+                    L.addLastLong(x);
+                    expected.add(x);
+            }
+            assertEquals(expected.size(), L.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals((long) expected.get(i), L.getLong(i));
+            assertEquals(expected.get(i), L.get(i));
+        }
+        assertEquals((long) expected.get(0), L.getFirstLong());
+        assertEquals((long) expected.get(expected.size() - 1), L.getLastLong());
+    }
+
+    @Test
+    public void testBoxedMethods() {
+        LongAList L = new LongAList();
+        for (int i = 0; i < 300; i++) {
+            L.addLast((1L << 40) + i);
+        }
+        L.addFirst(-1L);
+        L.insert(7L, 1);
+        assertEquals((Long) (-1L), L.getFirst());
+        assertEquals((Long) 7L, L.get(1));
+        assertEquals(302, L.size());
+
+        /* The iterator sees the boxed items in order. */
+        List<Long> seen = new ArrayList<>();
+        for (Long x : L) {
+            seen.add(x);
+        }
+        assertEquals(302, seen.size());
+        for (int i = 0; i < 300; i++) {
+            assertEquals((Long) ((1L << 40) + i), seen.get(i + 2));
+        }
+        assertEquals((Long) ((1L << 40) + 299), L.removeLast());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        new LongAList().addLast(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() {
+        new LongAList().insert(null, 0);
+    }
+
+}
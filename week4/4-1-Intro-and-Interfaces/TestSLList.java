@@ -0,0 +1,106 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests SLList against java.util.ArrayList.
+ */
+public class TestSLList {
+
+    private static void assertMatches(List<Integer> expected, SLList<Integer> L) {
+        assertEquals(expected.size(), L.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), L.get(i));
+        }
+        List<Integer> iterated = new ArrayList<>();
+        for (int x : L) {
+            iterated.add(x);
+        }
+        assertEquals(expected, iterated);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.get(0), L.getFirst());
+            assertEquals(expected.get(expected.size() - 1), L.getLast());
+        }
+    }
+
+    @Test
+    public void testMatchesArrayList() {
+        Random r = new Random(61);
+        for (int round = 0; round < 100; round++) {
+            SLList<Integer> L = r.nextBoolean() ? new SLList<>() : new SLList<>(-1);
+            List<Integer> expected = new ArrayList<>();
+            if (L.size() == 1) {
+                expected.add(-1);
+            }
+            for (int i = 0; i < 100; i++) {
+                int x = r.nextInt(1000);
+                switch (r.nextInt(4)) {
+                    case 0:
+                        L.addFirst(x);
+                        expected.add(0, x);
+                        break;
+                    case 1:
+                        int position = r.nextInt(expected.size() + 1);
+                        L.insert(x, position);
+                        expected.add(position, x);
+                        break;
+                    case 2:
+                        assertEquals(expected.isEmpty() ? null : expected.remove(expected.size() - 1),
+                                L.removeLast());
+                        break;
+                    default:
+                        L.addLast(x);
+                        expected.add(x);
+                }
+                assertMatches(expected, L);
+            }
+        }
+    }
+
+    /** removeLast used to leave size unchanged. */
+    @Test
+    public void testRemoveLastUpdatesSize() {
+        SLList<Integer> L = new SLList<>(1);
+        L.addLast(2);
+        assertEquals((Integer) 2, L.removeLast());
+        assertEquals(1, L.size());
+        assertEquals((Integer) 1, L.getLast());
+        assertEquals((Integer) 1, L.removeLast());
+        assertEquals(0, L.size());
+        assertNull(L.removeLast());
+        assertEquals(0, L.size());
+
+        /* The list still works once emptied. */
+        L.addLast(3);
+        assertEquals((Integer) 3, L.getFirst());
+        assertEquals((Integer) 3, L.getLast());
+    }
+
+    /**
+     * insert used to put items one place too far and failed on a
+     * one-element list.
+     */
+    @Test
+    public void testInsertPosition() {
+        SLList<String> L = new SLList<>("b");
+        L.insert("c", 1);
+        L.insert("a", 0);
+        L.insert("x", 2);
+        assertEquals(4, L.size());
+        assertEquals("a", L.get(0));
+        assertEquals("b", L.get(1));
+        assertEquals("x", L.get(2));
+        assertEquals("c", L.get(3));
+        assertEquals("c", L.getLast());
+
+        SLList<String> empty = new SLList<>();
+        empty.insert("only", 0);
+        empty.addLast("last");
+        assertEquals(2, empty.size());
+        assertEquals("last", empty.getLast());
+    }
+
+}
@@ -1,15 +1,13 @@
 public class WordUtils {
     /** Returns the length of the longest word. */
     public static String longest(List61B<String> list) {
-        int maxIdx = 0;
-        for (int i = 0; i < list.size(); i += 1) {
-            String longestString = list.get(maxIdx);
-            String thisString = list.get(i);
-            if (thisString.length() > longestString.length()) {
-                maxIdx = i;
+        String longestString = null;
+        for (String thisString : list) {
+            if (longestString == null || thisString.length() > longestString.length()) {
+                longestString = thisString;
             }
         }
-        return list.get(maxIdx);
+        return longestString;
     }
 
     public static void main(String[] args) {
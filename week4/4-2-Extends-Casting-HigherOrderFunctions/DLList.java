@@ -0,0 +1,152 @@
+/* A doubly linked list with a single circular sentinel: sentinel.next is
+ * the front node and sentinel.prev is the back node, so both ends can be
+ * reached (and removed) without walking the list. */
+
+import java.util.Iterator;
+
+public class DLList<Item> implements List61B<Item> {
+    private class Node {
+        public Node prev;
+        public Item item;
+        public Node next;
+
+        public Node(Node p, Item i, Node n) {
+            prev = p;
+            item = i;
+            next = n;
+        }
+    }
+
+    private Node sentinel;
+    private int size;
+
+    /** Creates an empty list. */
+    public DLList() {
+        size = 0;
+        sentinel = new Node(null, null, null);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    public DLList(Item x) {
+        this();
+        addFirst(x);
+    }
+
+    /** Links a new node holding x in between p and p.next. */
+    private void linkAfter(Node p, Item x) {
+        Node newNode = new Node(p, x, p.next);
+        p.next.prev = newNode;
+        p.next = newNode;
+        size += 1;
+    }
+
+    /** Unlinks node p from the list and returns its item. */
+    private Item unlink(Node p) {
+        p.prev.next = p.next;
+        p.next.prev = p.prev;
+        size -= 1;
+        return p.item;
+    }
+
+    /** Returns the positionth node, walking from whichever end is closer. */
+    private Node getNode(int position) {
+        Node p;
+        if (position < size / 2) {
+            p = sentinel.next;
+            for (int i = 0; i < position; i++) {
+                p = p.next;
+            }
+        } else {
+            p = sentinel;
+            for (int i = size; i > position; i--) {
+                p = p.prev;
+            }
+        }
+        return p;
+    }
+
+    /** Adds an item of the front. */
+    @Override
+    public void addFirst(Item x) {
+        linkAfter(sentinel, x);
+    }
+
+    /** Gets the front item of the list. */
+    @Override
+    public Item getFirst() {
+        return sentinel.next.item;
+    }
+
+    /** Puts an item at the back of the list. */
+    @Override
+    public void addLast(Item x) {
+        linkAfter(sentinel.prev, x);
+    }
+
+    /** Returns last item */
+    @Override
+    public Item getLast() {
+        return sentinel.prev.item;
+    }
+
+    /** Deletes and returns last item. */
+    @Override
+    public Item removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        return unlink(sentinel.prev);
+    }
+
+    /** Deletes and returns first item. */
+    public Item removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return unlink(sentinel.next);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Gets the positionth item of the list. */
+    @Override
+    public Item get(int position) {
+        return getNode(position).item;
+    }
+
+    /** Inserts item into given position. */
+    @Override
+    public void insert(Item item, int position) {
+        linkAfter(getNode(position).prev, item);
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new DLListIterator();
+    }
+
+    private class DLListIterator implements Iterator<Item> {
+        private Node p;
+
+        public DLListIterator() {
+            p = sentinel.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return p != sentinel;
+        }
+
+        @Override
+        public Item next() {
+            Item returnItem = p.item;
+            p = p.next;
+            return returnItem;
+        }
+    }
+
+}
@@ -1,4 +1,4 @@
-public class RotatingSLList<Item> extends SLList<Item> {
+public class RotatingSLList<Item> extends DLList<Item> {
 
     /** Rotates List to the right. */
     public void rotateRight() {
@@ -0,0 +1,150 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests DLList and SLList against java.util.ArrayList, and the two
+ * lists that extend DLList.
+ */
+public class TestDLList {
+
+    private static void assertMatches(List<Integer> expected, List61B<Integer> L) {
+        assertEquals(expected.size(), L.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), L.get(i));
+        }
+        List<Integer> iterated = new ArrayList<>();
+        for (int x : L) {
+            iterated.add(x);
+        }
+        assertEquals(expected, iterated);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.get(0), L.getFirst());
+            assertEquals(expected.get(expected.size() - 1), L.getLast());
+        }
+    }
+
+    /** Does one random List61B operation on both lists. */
+    private static void randomOp(Random r, List<Integer> expected, List61B<Integer> L) {
+        int x = r.nextInt(1000);
+        switch (r.nextInt(4)) {
+            case 0:
+                L.addFirst(x);
+                expected.add(0, x);
+                break;
+            case 1:
+                int position = r.nextInt(expected.size() + 1);
+                L.insert(x, position);
+                expected.add(position, x);
+                break;
+            case 2:
+                assertEquals(expected.isEmpty() ? null : expected.remove(expected.size() - 1),
+                        L.removeLast());
+                break;
+            default:
+                L.addLast(x);
+                expected.add(x);
+        }
+    }
+
+    /** Lists short enough to check in full after every operation. */
+    @Test
+    public void testMatchesArrayList() {
+        Random r = new Random(61);
+        for (int round = 0; round < 100; round++) {
+            DLList<Integer> dl = new DLList<>();
+            SLList<Integer> sl = new SLList<>();
+            List<Integer> expectedDL = new ArrayList<>();
+            List<Integer> expectedSL = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                randomOp(r, expectedDL, dl);
+                randomOp(r, expectedSL, sl);
+                assertMatches(expectedDL, dl);
+                assertMatches(expectedSL, sl);
+            }
+        }
+    }
+
+    /** Longer lists, so get and insert walk far from both ends. */
+    @Test
+    public void testLongList() {
+        Random r = new Random(62);
+        DLList<Integer> L = new DLList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            randomOp(r, expected, L);
+            if (r.nextInt(10) == 0) {
+                assertEquals(expected.isEmpty() ? null : expected.remove(0), L.removeFirst());
+            }
+            if (i % 500 == 0) {
+                assertMatches(expected, L);
+            }
+        }
+        assertMatches(expected, L);
+    }
+
+    @Test
+    public void testOneItem() {
+        DLList<String> L = new DLList<>("only");
+        assertEquals("only", L.getFirst());
+        assertEquals("only", L.getLast());
+        assertEquals("only", L.removeLast());
+        assertEquals(0, L.size());
+        assertNull(L.removeLast());
+        assertNull(L.removeFirst());
+        assertFalse(L.iterator().hasNext());
+
+        L.insert("a", 0);
+        L.insert("c", 1);
+        L.insert("b", 1);
+        assertEquals("a", L.get(0));
+        assertEquals("b", L.get(1));
+        assertEquals("c", L.get(2));
+        assertEquals("c", L.getLast());
+    }
+
+    @Test
+    public void testRotateRight() {
+        RotatingSLList<Integer> L = new RotatingSLList<>();
+        for (int i = 10; i <= 13; i++) {
+            L.addLast(i);
+        }
+        L.rotateRight();
+        assertEquals((Integer) 13, L.getFirst());
+        assertEquals((Integer) 12, L.getLast());
+        for (int i = 0; i < 3; i++) {
+            L.rotateRight();
+        }
+        assertEquals((Integer) 10, L.getFirst());
+        assertEquals((Integer) 13, L.getLast());
+        assertEquals(4, L.size());
+    }
+
+    @Test
+    public void testVengefulRemembersRemovedItems() {
+        VengefulSLList<Integer> L = new VengefulSLList<>(9);
+        L.addLast(1);
+        L.addLast(5);
+        L.addLast(10);
+        assertEquals((Integer) 10, L.removeLast());
+        assertEquals((Integer) 5, L.removeLast());
+        assertEquals(2, L.size());
+        assertEquals((Integer) 1, L.getLast());
+
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed));
+        try {
+            L.printLostItems();
+        } finally {
+            System.setOut(stdout);
+        }
+        assertEquals("5 10", printed.toString().trim());
+    }
+
+}
@@ -1,4 +1,4 @@
-public class VengefulSLList<Item> extends SLList<Item> {
+public class VengefulSLList<Item> extends DLList<Item> {
     private SLList<Item> deletedItems;
 
     public VengefulSLList() {
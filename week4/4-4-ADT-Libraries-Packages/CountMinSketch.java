@@ -0,0 +1,99 @@
+/**
+ * Approximate counts of words in a fixed depth x width table of ints,
+ * no matter how many distinct words there are (Count-Min Sketch).
+ *
+ * Each of the depth rows hashes a word to one counter. Adding a word
+ * bumps its counter in every row, and its count is read back as the
+ * smallest of those counters. Other words that collide can only push a
+ * counter up, so counts are never too low. With N words added in total,
+ * a count is too high by more than e * N / width with probability at
+ * most e^-depth.
+ *
+ * Adds use conservative update: only the counters that are at the
+ * minimum get bumped, which keeps collisions from inflating counts as
+ * much and never breaks the never-too-low guarantee.
+ */
+public class CountMinSketch {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_WIDTH = 1 << 14;
+
+    private final int[][] counters;
+    private final int mask;
+    private long total;
+
+    /** Creates an empty sketch with the default depth and width. */
+    public CountMinSketch() {
+        this(DEFAULT_DEPTH, DEFAULT_WIDTH);
+    }
+
+    /**
+     * Creates an empty sketch with depth rows, each with width counters
+     * rounded up to a power of two.
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || width > 1 << 30) {
+            throw new IllegalArgumentException("Bad depth " + depth + " or width " + width);
+        }
+        int w = Integer.highestOneBit(width);
+        if (w < width) {
+            w <<= 1;
+        }
+        counters = new int[depth][w];
+        mask = w - 1;
+    }
+
+    /** Returns the total of all counts added so far. */
+    public long total() {
+        return total;
+    }
+
+    /** Adds one occurrence of word and returns its new estimated count. */
+    public int add(CharSequence word) {
+        return add(word, 1);
+    }
+
+    /**
+     * Adds count occurrences of word and returns its new estimated count.
+     */
+    public int add(CharSequence word, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Can't add a negative count");
+        }
+        long h = HyperLogLog.hash(word);
+        int estimate = estimate(h) + count;
+        for (int row = 0; row < counters.length; row++) {
+            int slot = slot(h, row);
+            if (counters[row][slot] < estimate) {
+                counters[row][slot] = estimate;
+            }
+        }
+        total += count;
+        return estimate;
+    }
+
+    /** Returns the estimated count of word, which is never too low. */
+    public int estimate(CharSequence word) {
+        return estimate(HyperLogLog.hash(word));
+    }
+
+    private int estimate(long h) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][slot(h, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the counter for h in the given row. The rows combine two
+     * halves of one 64-bit hash (double hashing) instead of rehashing
+     * the word once per row.
+     */
+    private int slot(long h, int row) {
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+
+}
@@ -4,15 +4,86 @@ import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.regex.Pattern;
 
 public class DemoCollections {
 
+    /** Characters that cleanString removes, for the non-ASCII fallback. */
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]");
+
     /**
      * Returns a lower case version of the string with
      * all characters except letters removed.
      */
     public static String cleanString(String s) {
-        return s.toLowerCase().replaceAll("[^a-z]", "");
+        /* Skip the prefix that is already clean; often that's all of s. */
+        int n = s.length();
+        int i = 0;
+        while (i < n && isLowerAscii(s.charAt(i))) {
+            i++;
+        }
+        if (i == n) {
+            return s;
+        }
+
+        char[] buf = new char[n];
+        s.getChars(0, i, buf, 0);
+        int length = i;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                /* Lowercasing non-ASCII can produce a-z (e.g. the Kelvin
+                 * sign), so leave those strings to toLowerCase. */
+                return NON_LETTERS.matcher(s.toLowerCase()).replaceAll("");
+            }
+            if (isLowerAscii(c)) {
+                buf[length] = c;
+                length++;
+            } else if (c >= 'A' && c <= 'Z') {
+                buf[length] = (char) (c + ('a' - 'A'));
+                length++;
+            }
+        }
+        return new String(buf, 0, length);
+    }
+
+    /**
+     * Puts the cleanString version of s into out, replacing whatever out
+     * held before, so one StringBuilder can be reused for every word.
+     */
+    public static void cleanString(CharSequence s, StringBuilder out) {
+        out.setLength(0);
+        for (int i = 0, n = s.length(); i < n; ) {
+            int cp = Character.codePointAt(s, i);
+            appendCleaned(cp, out);
+            i += Character.charCount(cp);
+        }
+    }
+
+    /**
+     * Appends whatever cleanString keeps of the single code point cp to
+     * out: its lowercase a-z letters, if any. ASCII never allocates.
+     */
+    public static void appendCleaned(int cp, StringBuilder out) {
+        if (cp < 0x80) {
+            if (isLowerAscii((char) cp)) {
+                out.append((char) cp);
+            } else if (cp >= 'A' && cp <= 'Z') {
+                out.append((char) (cp + ('a' - 'A')));
+            }
+            return;
+        }
+        String lower = new String(Character.toChars(cp)).toLowerCase();
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (isLowerAscii(c)) {
+                out.append(c);
+            }
+        }
+    }
+
+    private static boolean isLowerAscii(char c) {
+        return c >= 'a' && c <= 'z';
     }
 
     /**
@@ -28,25 +99,64 @@ public class DemoCollections {
         return words;
     }
 
+    /**
+     * Gets all words in the file lazily, without building a list.
+     * Gives the same words as getWords.
+     */
+    public static WordSource streamWords(String inputFilename) {
+        return new WordSource(inputFilename);
+    }
+
     /**
      * Returns the count of the number of unique words in words.
      */
-    public static int countUniqueWords(List<String> words) {
-        /* Prof. Josh's solution */
-//        Set<String> wordSet = new HashSet<>();
-//        for (String word : words) {
-//            wordSet.add(word);
-//        }
-
-        Set<String> wordSet = new HashSet<>(words);
+    public static int countUniqueWords(Iterable<String> words) {
+        /* Prof. Josh's solution, which unlike new HashSet<>(words)
+         * also works on a WordSource that was never a Collection. */
+        Set<String> wordSet = new HashSet<>();
+        for (String word : words) {
+            wordSet.add(word);
+        }
         return wordSet.size();
     }
 
+    /**
+     * Returns an estimate of the number of unique words in words, using
+     * a HyperLogLog sketch of the given precision instead of a set of
+     * every word. See HyperLogLog for the error bounds.
+     */
+    public static long estimateUniqueWords(Iterable<String> words, int precision) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (String word : words) {
+            sketch.add(word);
+        }
+        return sketch.estimate();
+    }
+
+    /**
+     * Returns an estimate of the number of unique words in words, off by
+     * about 0.8% on average.
+     */
+    public static long estimateUniqueWords(Iterable<String> words) {
+        return estimateUniqueWords(words, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Returns the k most frequent words in words with their counts, most
+     * frequent first, in one pass and without a map of every word. The
+     * counts are estimates; see TopWords.
+     */
+    public static Map<String, Integer> topWords(Iterable<String> words, int k) {
+        TopWords top = new TopWords(k);
+        top.addAll(words);
+        return top.top();
+    }
+
     /**
      * Returns a map (a.k.a. dictionary) that tracks the count of all specified
      * target words in words.
      */
-    public static Map<String, Integer> collectWordCount(List<String> words, List<String> targets) {
+    public static Map<String, Integer> collectWordCount(Iterable<String> words, List<String> targets) {
         Map<String, Integer> counts = new HashMap<>();
 
         /* Initialize counts of targets in the map to 0 */
@@ -62,6 +172,21 @@ public class DemoCollections {
         return counts;
     }
 
+    /**
+     * Same as collectWordCount, but counts chunks of the list on every
+     * core at once.
+     */
+    public static Map<String, Integer> parallelCollectWordCount(List<String> words, List<String> targets) {
+        return ParallelWordCount.collectWordCount(words, targets);
+    }
+
+    /**
+     * Returns a map that tracks the count of every distinct word in words.
+     */
+    public static Map<String, Integer> countAll(List<String> words) {
+        return ParallelWordCount.countAll(words).toMap();
+    }
+
     public static void main(String[] args) {
         List<String> w = getWords("lotteryOfBabylon.txt");
         System.out.println(countUniqueWords(w));
@@ -72,5 +197,12 @@ public class DemoCollections {
 		targets.add("babylon");
 
 		System.out.println(collectWordCount(w, targets));
+		System.out.println(topWords(w, 10));
+
+		/* Same counts, streamed straight from the file. */
+		WordSource ws = streamWords("lotteryOfBabylon.txt");
+		System.out.println(countUniqueWords(ws));
+		System.out.println(estimateUniqueWords(ws));
+		System.out.println(collectWordCount(ws, targets));
     }
 }
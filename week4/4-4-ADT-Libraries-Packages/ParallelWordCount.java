@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts words on every core. The word list is split into chunks, each
+ * chunk is counted into its own primitive table with no locking, and
+ * the tables are merged pairwise as the chunks finish.
+ */
+public class ParallelWordCount {
+
+    /** Chunks never get smaller than this many words. */
+    private static final int MIN_CHUNK = 1 << 13;
+
+    /**
+     * Returns the count of every distinct word in words.
+     */
+    public static StringIntMap countAll(List<String> words) {
+        words = randomAccess(words);
+        return ForkJoinPool.commonPool().invoke(
+                new CountAllTask(words, 0, words.size(), chunkSize(words.size())));
+    }
+
+    /**
+     * Returns a map that tracks the count of all specified target words
+     * in words. Same result as DemoCollections.collectWordCount.
+     */
+    public static Map<String, Integer> collectWordCount(List<String> words, List<String> targets) {
+        words = randomAccess(words);
+
+        /* Give each distinct target a slot in a plain int[], so the
+         * shared ids table is only ever read while counting. */
+        StringIntMap ids = new StringIntMap();
+        for (String t : targets) {
+            if (!ids.containsKey(t)) {
+                ids.putInt(t, ids.size());
+            }
+        }
+
+        int[] counts = ForkJoinPool.commonPool().invoke(
+                new CountTargetsTask(words, 0, words.size(), chunkSize(words.size()), ids));
+
+        Map<String, Integer> result = new HashMap<>();
+        ids.forEach((t, id) -> result.put(t, counts[id]));
+        return result;
+    }
+
+    /** Chunks index into the list, which must be cheap for that. */
+    private static List<String> randomAccess(List<String> words) {
+        if (words instanceof RandomAccess) {
+            return words;
+        }
+        return new ArrayList<>(words);
+    }
+
+    /** Aims for a few chunks per core, so uneven chunks even out. */
+    private static int chunkSize(int n) {
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(MIN_CHUNK, n / chunks);
+    }
+
+    private static class CountAllTask extends RecursiveTask<StringIntMap> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> words;
+        private final int lo;
+        private final int hi;
+        private final int chunk;
+
+        CountAllTask(List<String> words, int lo, int hi, int chunk) {
+            this.words = words;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected StringIntMap compute() {
+            if (hi - lo <= chunk) {
+                StringIntMap counts = new StringIntMap();
+                for (int i = lo; i < hi; i++) {
+                    counts.addTo(words.get(i), 1);
+                }
+                return counts;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            CountAllTask left = new CountAllTask(words, lo, mid, chunk);
+            left.fork();
+            StringIntMap right = new CountAllTask(words, mid, hi, chunk).compute();
+            StringIntMap leftCounts = left.join();
+
+            /* Fold the smaller table into the bigger one. */
+            if (leftCounts.size() < right.size()) {
+                right.addAll(leftCounts);
+                return right;
+            }
+            leftCounts.addAll(right);
+            return leftCounts;
+        }
+    }
+
+    private static class CountTargetsTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> words;
+        private final int lo;
+        private final int hi;
+        private final int chunk;
+        private final StringIntMap ids;
+
+        CountTargetsTask(List<String> words, int lo, int hi, int chunk, StringIntMap ids) {
+            this.words = words;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunk = chunk;
+            this.ids = ids;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo <= chunk) {
+                int[] counts = new int[ids.size()];
+                for (int i = lo; i < hi; i++) {
+                    int id = ids.getInt(words.get(i), -1);
+                    if (id != -1) {
+                        counts[id]++;
+                    }
+                }
+                return counts;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            CountTargetsTask left = new CountTargetsTask(words, lo, mid, chunk, ids);
+            left.fork();
+            int[] counts = new CountTargetsTask(words, mid, hi, chunk, ids).compute();
+            int[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+    }
+
+}
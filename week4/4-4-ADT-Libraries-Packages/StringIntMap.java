@@ -0,0 +1,181 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A String to int map for counting, with the counts kept in an int[]
+ * instead of boxed Integers. Uses open addressing with linear probing.
+ *
+ * Keys can be looked up (and counted) by any CharSequence with the same
+ * characters, so a reused buffer like WordSource's word view is only
+ * turned into a String the first time that word is seen.
+ */
+public class StringIntMap {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /* keys.length is a power of two and always at least twice size. */
+    private String[] keys;
+    private int[] values;
+    private int size;
+
+    /** Creates an empty map. */
+    public StringIntMap() {
+        keys = new String[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /** Returns the number of keys in this map. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns the count for key, or missingValue if key isn't here. */
+    public int getInt(CharSequence key, int missingValue) {
+        int slot = findSlot(key, hash(key));
+        if (keys[slot] == null) {
+            return missingValue;
+        }
+        return values[slot];
+    }
+
+    /** Returns true if key is in this map. */
+    public boolean containsKey(CharSequence key) {
+        return keys[findSlot(key, hash(key))] != null;
+    }
+
+    /** Sets the count for key to value. */
+    public void putInt(CharSequence key, int value) {
+        /* slotFor may resize, so find the slot before reading values. */
+        int slot = slotFor(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Adds delta to the count for key, treating a missing key as 0, and
+     * returns the new count.
+     */
+    public int addTo(CharSequence key, int delta) {
+        int slot = slotFor(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /** Removes key from this map. Returns true if it was here. */
+    public boolean remove(CharSequence key) {
+        int mask = keys.length - 1;
+        int slot = findSlot(key, hash(key));
+        if (keys[slot] == null) {
+            return false;
+        }
+
+        /* Shift later keys of the same probe run back into the hole, so
+         * no lookup stops early at it. A key can move back only if the
+         * hole is between its home slot and where it is now. */
+        int hole = slot;
+        int i = (hole + 1) & mask;
+        while (keys[i] != null) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[hole] = null;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /** Adds every count in other to this map. */
+    public void addAll(StringIntMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != null) {
+                addTo(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    /** Calls action on every key and its count, in no particular order. */
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /** Returns a java.util.Map with the same counts. */
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> m = new HashMap<>();
+        forEach(m::put);
+        return m;
+    }
+
+    /**
+     * Returns the same hash String.hashCode would give for key's
+     * characters, so Strings and other CharSequences land in the same
+     * slot. Strings just use their cached hash.
+     */
+    private static int hash(CharSequence key) {
+        int h;
+        if (key instanceof String) {
+            h = key.hashCode();
+        } else {
+            h = 0;
+            for (int i = 0, n = key.length(); i < n; i++) {
+                h = 31 * h + key.charAt(i);
+            }
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the slot holding key, or the empty slot where it would go. */
+    private int findSlot(CharSequence key, int h) {
+        int mask = keys.length - 1;
+        int slot = h & mask;
+        while (keys[slot] != null && !keys[slot].contentEquals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Returns the slot holding key, adding key with count 0 if needed. */
+    private int slotFor(CharSequence key) {
+        int h = hash(key);
+        int slot = findSlot(key, h);
+        if (keys[slot] != null) {
+            return slot;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+            slot = findSlot(key, h);
+        }
+        keys[slot] = key.toString();
+        size++;
+        return slot;
+    }
+
+    /** Rehashes every key into tables of the given capacity. */
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+}
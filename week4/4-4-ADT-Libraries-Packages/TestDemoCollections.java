@@ -0,0 +1,84 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+/**
+ * Tests that every version of DemoCollections.cleanString gives exactly
+ * what the original toLowerCase().replaceAll("[^a-z]", "") gave.
+ */
+public class TestDemoCollections {
+
+    /* ASCII, mixed case, letters whose lowercase is or contains a-z
+     * (dotted capital I, the Kelvin sign), ones that change length or
+     * depend on context (sharp s, final sigma), and surrogate pairs. */
+    private static final String[] PIECES = {"a", "z", "A", "Z", "m", "Q", "0", "9", "'", "-",
+        " ", "\t", "@", "[", "`", "{", "\u00E9", "\u00C9", "\u00DF", "\u1E9E", "\u0130",
+        "\u0131", "\u03A3", "\u03C3", "\u03C2", "\u212A", "\u00FF", "\u0178",
+        "\uD83D\uDE00", "\uD835\uDC00", "\uD801\uDC00", "\uD800", "\uDC00"};
+
+    private static String expected(String s) {
+        return s.toLowerCase().replaceAll("[^a-z]", "");
+    }
+
+    private static String cleanOneCodePointAtATime(String s) {
+        StringBuilder out = new StringBuilder();
+        s.codePoints().forEach(cp -> DemoCollections.appendCleaned(cp, out));
+        return out.toString();
+    }
+
+    private static void assertCleansLikeRegex(String s, StringBuilder reused) {
+        String expected = expected(s);
+        assertEquals(s, expected, DemoCollections.cleanString(s));
+        DemoCollections.cleanString(s, reused);
+        assertEquals(s, expected, reused.toString());
+        assertEquals(s, expected, cleanOneCodePointAtATime(s));
+    }
+
+    @Test
+    public void testExamples() {
+        String[] examples = {"", "babylon", "Babylon", "BABYLON,", "it's", "x2y", "--",
+            "\u0130stanbul", "stra\u00DFe", "\u03A3\u039F\u03A6\u039F\u03A3", "\u212Aelvin",
+            "caf\u00E9", "\uD83D\uDE00ok\uD83D\uDE00", "lone\uD800surrogate"};
+        StringBuilder reused = new StringBuilder("left over from before");
+        for (String s : examples) {
+            assertCleansLikeRegex(s, reused);
+        }
+        /* Already clean strings come back as they are. */
+        String clean = "lottery";
+        assertSame(clean, DemoCollections.cleanString(clean));
+    }
+
+    @Test
+    public void testRandomStrings() {
+        Random r = new Random(61);
+        StringBuilder reused = new StringBuilder();
+        for (int round = 0; round < 20000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int n = r.nextInt(12);
+            /* Half are ASCII only, so both the fast and fallback paths run. */
+            boolean asciiOnly = r.nextBoolean();
+            for (int i = 0; i < n; i++) {
+                int limit = asciiOnly ? 16 : PIECES.length;
+                sb.append(PIECES[r.nextInt(limit)]);
+            }
+            assertCleansLikeRegex(sb.toString(), reused);
+        }
+    }
+
+    /** Every single char and code point on its own. */
+    @Test
+    public void testEveryCodePoint() {
+        StringBuilder reused = new StringBuilder();
+        for (int cp = 0; cp <= Character.MAX_CODE_POINT; cp++) {
+            String s = new String(Character.toChars(cp));
+            String expected = expected(s);
+            DemoCollections.cleanString(s, reused);
+            assertEquals(expected, reused.toString());
+            if (cp < 0x10000 || cp % 0x100 == 0) {
+                assertEquals(expected, DemoCollections.cleanString(s));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the HyperLogLog class against exact HashSet counts.
+ */
+public class TestHyperLogLog {
+
+    /**
+     * Returns n random lowercase words, with plenty of repeats.
+     */
+    private static List<String> randomWords(int n, int vocabulary, long seed) {
+        Random r = new Random(seed);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            words.add("w" + r.nextInt(vocabulary));
+        }
+        return words;
+    }
+
+    /**
+     * Checks that estimate is within 3 standard errors of exact, which
+     * a correct sketch misses well under 1% of the time.
+     */
+    private static void assertWithinBounds(HyperLogLog sketch, int exact) {
+        double allowed = 3 * sketch.standardError() * exact;
+        long estimate = sketch.estimate();
+        assertTrue("estimate " + estimate + " vs exact " + exact,
+                Math.abs(estimate - exact) <= allowed);
+    }
+
+    /**
+     * Test estimateUniqueWords() against countUniqueWords().
+     */
+    @Test
+    public void testEstimateMatchesExact() {
+        List<String> words = randomWords(300000, 200000, 61);
+        int exact = DemoCollections.countUniqueWords(words);
+        for (int precision = 10; precision <= 16; precision += 2) {
+            HyperLogLog sketch = new HyperLogLog(precision);
+            for (String w : words) {
+                sketch.add(w);
+            }
+            assertWithinBounds(sketch, exact);
+        }
+        long estimate = DemoCollections.estimateUniqueWords(words);
+        assertEquals(exact, estimate, 3 * 0.0082 * exact);
+    }
+
+    /**
+     * Small counts should come out near exact.
+     */
+    @Test
+    public void testSmallCounts() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+        for (int i = 0; i < 3; i++) {
+            sketch.add("lottery");
+            sketch.add("babylon");
+        }
+        assertEquals(2, sketch.estimate());
+
+        List<String> words = randomWords(5000, 1000, 7);
+        HyperLogLog sketch2 = new HyperLogLog();
+        for (String w : words) {
+            sketch2.add(w);
+        }
+        int exact = new HashSet<>(words).size();
+        assertEquals(exact, sketch2.estimate(), 0.01 * exact);
+    }
+
+    /**
+     * Merging sketches of two halves gives the sketch of the whole.
+     */
+    @Test
+    public void testMerge() {
+        List<String> first = randomWords(100000, 80000, 1);
+        List<String> second = randomWords(100000, 80000, 2);
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog whole = new HyperLogLog();
+        for (String w : first) {
+            a.add(w);
+            whole.add(w);
+        }
+        for (String w : second) {
+            b.add(w);
+            whole.add(w);
+        }
+        a.merge(b);
+        assertEquals(whole.estimate(), a.estimate());
+
+        HashSet<String> union = new HashSet<>(first);
+        union.addAll(second);
+        assertWithinBounds(a, union.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentPrecision() {
+        new HyperLogLog(10).merge(new HyperLogLog(12));
+    }
+
+}
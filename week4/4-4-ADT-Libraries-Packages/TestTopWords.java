@@ -0,0 +1,120 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests CountMinSketch and TopWords against exact counts.
+ */
+public class TestTopWords {
+
+    /**
+     * Returns n words drawn from a Zipf-like distribution over the
+     * given vocabulary, so a few words are very common and most are rare.
+     */
+    private static List<String> zipfWords(int n, int vocabulary, long seed) {
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        Random r = new Random(seed);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double x = r.nextDouble() * sum;
+            int rank = -java.util.Arrays.binarySearch(cumulative, x) - 1;
+            words.add("w" + Math.min(rank, vocabulary - 1));
+        }
+        return words;
+    }
+
+    /**
+     * Estimates are never below the exact count. Each may be more than
+     * e * N / width too high with probability e^-depth, so only the
+     * fraction of words past that bound is checked, with room to spare.
+     */
+    @Test
+    public void testCountMinSketch() {
+        int depth = 4;
+        int width = 1 << 12;
+        List<String> words = zipfWords(200000, 50000, 3);
+        Map<String, Integer> exact = DemoCollections.countAll(words);
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        for (String w : words) {
+            sketch.add(w);
+        }
+        assertEquals(words.size(), sketch.total());
+
+        double bound = Math.E * words.size() / width;
+        int over = 0;
+        for (Map.Entry<String, Integer> e : exact.entrySet()) {
+            int estimate = sketch.estimate(e.getKey());
+            assertTrue(estimate >= e.getValue());
+            if (estimate - e.getValue() > bound) {
+                over++;
+            }
+        }
+        assertTrue(over <= 2 * Math.exp(-depth) * exact.size());
+        assertEquals(0, new CountMinSketch().estimate("babylon"));
+    }
+
+    /**
+     * The top words match the exact top words, most frequent first.
+     */
+    @Test
+    public void testTopWords() {
+        List<String> words = zipfWords(300000, 100000, 5);
+        Map<String, Integer> exact = DemoCollections.countAll(words);
+        List<Integer> exactCounts = new ArrayList<>(exact.values());
+        Collections.sort(exactCounts, Collections.reverseOrder());
+
+        Map<String, Integer> top = DemoCollections.topWords(words, 20);
+        assertEquals(20, top.size());
+        int i = 0;
+        for (Map.Entry<String, Integer> e : top.entrySet()) {
+            assertEquals(exactCounts.get(i), exact.get(e.getKey()));
+            assertEquals(exact.get(e.getKey()), e.getValue());
+            i++;
+        }
+    }
+
+    /**
+     * Fewer distinct words than k gives all of them, with exact counts.
+     */
+    @Test
+    public void testFewWords() {
+        TopWords top = new TopWords(5);
+        String[] words = {"the", "lottery", "the", "babylon", "the", "lottery"};
+        for (String w : words) {
+            top.add(new StringBuilder(w));
+        }
+        Map<String, Integer> result = top.top();
+        assertEquals("{the=3, lottery=2, babylon=1}", result.toString());
+        assertEquals(3, top.estimate("the"));
+    }
+
+    /**
+     * Removing from a StringIntMap keeps every other key reachable.
+     */
+    @Test
+    public void testStringIntMapRemove() {
+        StringIntMap m = new StringIntMap();
+        for (int i = 0; i < 1000; i++) {
+            m.putInt("w" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue(m.remove("w" + i));
+        }
+        assertFalse(m.remove("w0"));
+        assertEquals(666, m.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 == 0 ? -1 : i, m.getInt("w" + i, -1));
+        }
+    }
+
+}
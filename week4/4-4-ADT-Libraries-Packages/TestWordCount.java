@@ -0,0 +1,107 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests StringIntMap against java.util.HashMap, and ParallelWordCount
+ * against DemoCollections' serial count.
+ */
+public class TestWordCount {
+
+    /** Returns n random words from a vocabulary of the given size. */
+    private static List<String> randomWords(int n, int vocabulary, long seed) {
+        Random r = new Random(seed);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            words.add("w" + r.nextInt(vocabulary));
+        }
+        return words;
+    }
+
+    @Test
+    public void testStringIntMapMatchesHashMap() {
+        StringIntMap m = new StringIntMap();
+        Map<String, Integer> expected = new HashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            String k = "k" + r.nextInt(5000);
+            switch (r.nextInt(4)) {
+                case 0:
+                    /* putInt right at a resize used to write the old array. */
+                    m.putInt(k, i);
+                    expected.put(k, i);
+                    break;
+                case 1:
+                    assertEquals((int) expected.merge(k, 3, Integer::sum), m.addTo(k, 3));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(k) != null, m.remove(k));
+                    break;
+                default:
+                    assertEquals((int) expected.getOrDefault(k, -1), m.getInt(k, -1));
+                    assertEquals(expected.containsKey(k), m.containsKey(k));
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected, m.toMap());
+    }
+
+    @Test
+    public void testStringIntMapPutIntWhileGrowing() {
+        StringIntMap m = new StringIntMap();
+        for (int i = 0; i < 10000; i++) {
+            m.putInt("k" + i, i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, m.getInt("k" + i, -1));
+        }
+    }
+
+    @Test
+    public void testStringIntMapCharSequenceKeys() {
+        StringIntMap m = new StringIntMap();
+        StringBuilder sb = new StringBuilder("cat");
+        m.addTo(sb, 1);
+        sb.setLength(0);
+        sb.append("dog");
+        m.addTo(sb, 1);
+        m.addTo("cat", 1);
+        assertEquals(2, m.getInt("cat", 0));
+        assertEquals(1, m.getInt(new StringBuilder("dog"), 0));
+    }
+
+    @Test
+    public void testParallelCountsMatchSerial() {
+        /* Big enough to be split into many chunks. */
+        List<String> words = randomWords(200000, 3000, 61);
+        List<String> targets = Arrays.asList("w1", "w2", "w2", "w2999", "missing");
+
+        Map<String, Integer> serial = DemoCollections.collectWordCount(words, targets);
+        assertEquals(serial, DemoCollections.parallelCollectWordCount(words, targets));
+        assertEquals(serial, DemoCollections.parallelCollectWordCount(new LinkedList<>(words), targets));
+        assertEquals((Integer) 0, serial.get("missing"));
+
+        Map<String, Integer> all = new HashMap<>();
+        for (String w : words) {
+            all.merge(w, 1, Integer::sum);
+        }
+        assertEquals(all, DemoCollections.countAll(words));
+    }
+
+    @Test
+    public void testParallelCountsSmallInput() {
+        List<String> words = Arrays.asList("the", "cat", "the");
+        List<String> targets = Arrays.asList("the", "dog");
+        assertEquals(DemoCollections.collectWordCount(words, targets),
+                DemoCollections.parallelCollectWordCount(words, targets));
+        assertEquals(0, DemoCollections.countAll(new ArrayList<>()).size());
+    }
+
+}
@@ -0,0 +1,147 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Tests that WordSource gives the same words as DemoCollections.getWords,
+ * which reads the file with In and cleans each word with cleanString.
+ * Small windows make words and characters straddle window boundaries.
+ */
+public class TestWordSource {
+
+    private static final long[] WINDOW_SIZES = {1, 2, 3, 5, 64, 1L << 30};
+
+    /* Pieces to build files from: letters, punctuation, ASCII and
+     * Unicode whitespace, multi-byte letters, and malformed UTF-8. */
+    private static final String[] TEXT = {"the", "Lottery", "BABYLON", "it's", "x2", "--",
+        " ", "  ", "\n", "\t", "\r\n", "\u2003", "\u3000", "\u2028", "\u00A0",
+        "\u00E9t\u00E9", "stra\u00DFe", "\u0130stanbul", "\u03A3\u03BF\u03C6", "\u212A",
+        "\u65E5\u672C", "\uD83D\uDE00", "\uD835\uDC00"};
+    private static final byte[][] MALFORMED = {
+        {(byte) 0xFF}, {(byte) 0x80}, {(byte) 0xC3}, {(byte) 0xE6, (byte) 0x97},
+        {(byte) 0xC0, (byte) 0xA0}, {(byte) 0xE0, (byte) 0x80, (byte) 0xA0},
+        {(byte) 0xED, (byte) 0xA0, (byte) 0x80}, {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+        {(byte) 0xF8, (byte) 0x88, (byte) 0x80, (byte) 0x80, (byte) 0x80}};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String write(byte[] bytes) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, bytes);
+        return file.toString();
+    }
+
+    private String write(String text) throws IOException {
+        return write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Checks every way of reading words from file against getWords. */
+    private static void assertMatchesGetWords(String file) {
+        List<String> expected = DemoCollections.getWords(file);
+        for (long windowSize : WINDOW_SIZES) {
+            WordSource source = new WordSource(file, windowSize);
+            List<String> iterated = new ArrayList<>();
+            for (String w : source) {
+                iterated.add(w);
+            }
+            assertEquals("window " + windowSize, expected, iterated);
+            assertEquals("window " + windowSize, expected, source.stream().collect(Collectors.toList()));
+
+            List<String> visited = new ArrayList<>();
+            source.forEachWord(w -> visited.add(w.toString()));
+            assertEquals("window " + windowSize, expected, visited);
+        }
+    }
+
+    @Test
+    public void testSmallFile() throws IOException {
+        String file = write("The lottery, in Babylon,\nwas a game of\tplebeian character.\n");
+        assertMatchesGetWords(file);
+        List<String> words = new ArrayList<>();
+        new WordSource(file, 3).forEach(words::add);
+        assertEquals("[the, lottery, in, babylon, was, a, game, of, plebeian, character]",
+                words.toString());
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertMatchesGetWords(write(""));
+        assertFalse(new WordSource(write("")).iterator().hasNext());
+        assertMatchesGetWords(write(" \n\t\n"));
+    }
+
+    @Test
+    public void testNoTrailingNewline() throws IOException {
+        assertMatchesGetWords(write("one two three"));
+        assertMatchesGetWords(write("one two t"));
+        assertMatchesGetWords(write("\u00E9t\u00E9 stra\u00DFe"));
+    }
+
+    @Test
+    public void testUnicodeWhitespace() throws IOException {
+        /* U+2003, U+3000 and U+2028 split words, like a space; U+00A0 doesn't. */
+        String file = write("cat\u2003dog\u3000cow\u2028pig\u00A0hen");
+        assertMatchesGetWords(file);
+        List<String> words = new ArrayList<>();
+        new WordSource(file).forEach(words::add);
+        assertEquals("[cat, dog, cow, pighen]", words.toString());
+    }
+
+    /**
+     * Malformed bytes decode to U+FFFD, which isn't a letter or
+     * whitespace, and never take the byte after them with them.
+     */
+    @Test
+    public void testMalformedUtf8() throws IOException {
+        for (byte[] bad : MALFORMED) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] before = "cat ".getBytes(StandardCharsets.UTF_8);
+            byte[] after = "a dog".getBytes(StandardCharsets.UTF_8);
+            out.write(before, 0, before.length);
+            out.write(bad, 0, bad.length);
+            out.write(after, 0, after.length);
+            out.write(bad, 0, bad.length);
+            out.write(' ');
+            out.write(bad, 0, bad.length);
+            assertMatchesGetWords(write(out.toByteArray()));
+        }
+    }
+
+    /** Random mixes of everything above, including at the very end. */
+    @Test
+    public void testRandomFiles() throws IOException {
+        Random r = new Random(61);
+        for (int round = 0; round < 100; round++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int pieces = r.nextInt(60);
+            for (int i = 0; i < pieces; i++) {
+                byte[] piece;
+                if (r.nextInt(10) == 0) {
+                    piece = MALFORMED[r.nextInt(MALFORMED.length)];
+                } else {
+                    piece = TEXT[r.nextInt(TEXT.length)].getBytes(StandardCharsets.UTF_8);
+                }
+                out.write(piece, 0, piece.length);
+            }
+            assertMatchesGetWords(write(out.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testBook() {
+        assertMatchesGetWords("lotteryOfBabylon.txt");
+    }
+
+}
@@ -0,0 +1,170 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the k most frequent words of a stream in one pass, with memory
+ * bounded by k and the sketch size rather than by how many distinct
+ * words there are.
+ *
+ * Every word is counted in a CountMinSketch. A min-heap holds the k
+ * words with the highest estimated counts seen so far, with the least
+ * frequent of them at the root: a word outside the heap gets in once
+ * its estimate beats the root's, which it then replaces.
+ *
+ * Counts are the sketch's estimates, so they may be a little high, and
+ * a word whose count is within the sketch's error of the k-th count may
+ * be swapped for another. Words well clear of that come out exactly.
+ */
+public class TopWords {
+
+    private final int k;
+    private final CountMinSketch sketch;
+
+    /* A binary min-heap on heapCounts, with heapWords alongside. */
+    private final String[] heapWords;
+    private final int[] heapCounts;
+    private int size;
+
+    /* Where each word in the heap is, so a repeat can be found fast. */
+    private final StringIntMap positions;
+
+    /** Creates a tracker for the k most frequent words. */
+    public TopWords(int k) {
+        this(k, new CountMinSketch());
+    }
+
+    /** Creates a tracker for the k most frequent words, counting with sketch. */
+    public TopWords(int k, CountMinSketch sketch) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.sketch = sketch;
+        heapWords = new String[k];
+        heapCounts = new int[k];
+        positions = new StringIntMap();
+        size = 0;
+    }
+
+    /**
+     * Counts one occurrence of word. The word is only copied into a
+     * String when it enters the top k, so a reused CharSequence like
+     * WordSource.forEachWord's is fine.
+     */
+    public void add(CharSequence word) {
+        int count = sketch.add(word);
+        int i = positions.getInt(word, -1);
+        if (i != -1) {
+            /* Counts only grow, so a word can only sink in a min-heap. */
+            heapCounts[i] = count;
+            siftDown(i);
+        } else if (size < k) {
+            String w = word.toString();
+            heapWords[size] = w;
+            heapCounts[size] = count;
+            positions.putInt(w, size);
+            size++;
+            siftUp(size - 1);
+        } else if (count > heapCounts[0]) {
+            positions.remove(heapWords[0]);
+            String w = word.toString();
+            heapWords[0] = w;
+            heapCounts[0] = count;
+            positions.putInt(w, 0);
+            siftDown(0);
+        }
+    }
+
+    /** Counts every word in words. */
+    public void addAll(Iterable<? extends CharSequence> words) {
+        for (CharSequence w : words) {
+            add(w);
+        }
+    }
+
+    /** Returns the estimated count of word, tracked in the top k or not. */
+    public int estimate(CharSequence word) {
+        return sketch.estimate(word);
+    }
+
+    /**
+     * Returns the top words and their estimated counts, from most to
+     * least frequent. Ties come out in no particular order.
+     */
+    public Map<String, Integer> top() {
+        String[] words = heapWords.clone();
+        int[] counts = heapCounts.clone();
+        int n = size;
+
+        /* Pop the min-heap copy into the back of the arrays, then read
+         * them front to back. */
+        while (n > 1) {
+            n--;
+            swap(words, counts, 0, n);
+            int i = 0;
+            while (2 * i + 1 < n) {
+                int child = smallerChild(counts, i, n);
+                if (counts[i] <= counts[child]) {
+                    break;
+                }
+                swap(words, counts, i, child);
+                i = child;
+            }
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            result.put(words[i], counts[i]);
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapCounts[parent] <= heapCounts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (2 * i + 1 < size) {
+            int child = smallerChild(heapCounts, i, size);
+            if (heapCounts[i] <= heapCounts[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    /** Returns the child of i with the smaller count, in a heap of n. */
+    private static int smallerChild(int[] counts, int i, int n) {
+        int left = 2 * i + 1;
+        int right = left + 1;
+        if (right < n && counts[right] < counts[left]) {
+            return right;
+        }
+        return left;
+    }
+
+    /** Swaps heap entries i and j, keeping positions up to date. */
+    private void swap(int i, int j) {
+        swap(heapWords, heapCounts, i, j);
+        positions.putInt(heapWords[i], i);
+        positions.putInt(heapWords[j], j);
+    }
+
+    private static void swap(String[] words, int[] counts, int i, int j) {
+        String w = words[i];
+        words[i] = words[j];
+        words[j] = w;
+        int c = counts[i];
+        counts[i] = counts[j];
+        counts[j] = c;
+    }
+
+}
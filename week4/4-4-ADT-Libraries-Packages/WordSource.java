@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the words of a UTF-8 text file, already cleaned the way
+ * DemoCollections.cleanString cleans them, without reading the whole
+ * file into memory. The file is memory-mapped a window at a time and
+ * tokenized straight from the mapped bytes: whitespace splits words
+ * (like In.readString) and every other character goes through
+ * DemoCollections.appendCleaned, with no String per token. A token
+ * with no letters at all still counts as an (empty) word, same as
+ * getWords.
+ *
+ * Iterating gives one String per word. forEachWord skips even that by
+ * handing out one reused CharSequence view.
+ */
+public class WordSource implements Iterable<String> {
+
+    /** Bytes mapped at a time; a MappedByteBuffer can't exceed 2GB anyway. */
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final Path path;
+    private final long windowSize;
+
+    /** Creates a word source for the file with the given name. */
+    public WordSource(String filename) {
+        this(filename, WINDOW_SIZE);
+    }
+
+    /**
+     * Same, but mapping windowSize bytes at a time. Tests use tiny
+     * windows so that words and characters cross window boundaries.
+     */
+    WordSource(String filename, long windowSize) {
+        if (windowSize < 1 || windowSize > WINDOW_SIZE) {
+            throw new IllegalArgumentException("Bad window size " + windowSize);
+        }
+        path = Paths.get(filename);
+        this.windowSize = windowSize;
+    }
+
+    /** Returns an iterator that reads the file lazily, one word at a time. */
+    @Override
+    public Iterator<String> iterator() {
+        return new WordIterator();
+    }
+
+    /** Returns a lazy sequential stream of the words in the file. */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Calls action on every word in the file, in order. The same
+     * CharSequence object is passed every time and is overwritten by the
+     * next word, so call toString() on it to keep a word around.
+     */
+    public void forEachWord(Consumer<? super CharSequence> action) {
+        Tokenizer t = new Tokenizer();
+        while (t.advance()) {
+            action.accept(t);
+        }
+    }
+
+    private class WordIterator implements Iterator<String> {
+        private final Tokenizer tokenizer;
+        private boolean ready;
+        private boolean done;
+
+        public WordIterator() {
+            tokenizer = new Tokenizer();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready && !done) {
+                ready = tokenizer.advance();
+                done = !ready;
+            }
+            return ready;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return tokenizer.toString();
+        }
+    }
+
+    /**
+     * Walks the mapped bytes and keeps the current cleaned word in a
+     * StringBuilder that is reused from word to word. Also serves as
+     * the (read-only) CharSequence view of that word.
+     */
+    private class Tokenizer implements CharSequence {
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long fileSize;
+        /* A byte that decode read but didn't use, or -1. */
+        private int pushedBack;
+
+        private final StringBuilder word;
+
+        public Tokenizer() {
+            word = new StringBuilder();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                fileSize = channel.size();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not open " + path, e);
+            }
+            windowStart = 0;
+            window = null;
+            pushedBack = -1;
+        }
+
+        /**
+         * Maps the window starting at windowStart. The mapping stays valid
+         * after its channel is closed, so no file handle is held between
+         * calls to advance.
+         */
+        private void mapWindow() {
+            long size = Math.min(windowSize, fileSize - windowStart);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read " + path, e);
+            }
+        }
+
+        /** Returns the next byte of the file as 0-255, or -1 at the end. */
+        private int nextByte() {
+            if (pushedBack != -1) {
+                int b = pushedBack;
+                pushedBack = -1;
+                return b;
+            }
+            if (window == null || !window.hasRemaining()) {
+                if (window != null) {
+                    windowStart += window.capacity();
+                }
+                if (windowStart >= fileSize) {
+                    return -1;
+                }
+                mapWindow();
+            }
+            return window.get() & 0xFF;
+        }
+
+        /**
+         * Reads the rest of a multi-byte UTF-8 character whose first byte
+         * is b. Returns the code point, or -1 if the bytes are malformed.
+         * Like Java's own decoder, a malformed character never swallows
+         * the byte after it unless that byte continues the character, and
+         * overlong forms, surrogates and values past U+10FFFF are
+         * malformed, so they can't pass for whitespace.
+         */
+        private int decode(int b) {
+            int extra;
+            int cp;
+            int min;
+            if (b >= 0xF8) {
+                return -1;
+            } else if (b >= 0xF0) {
+                extra = 3;
+                cp = b & 0x07;
+                min = 0x10000;
+            } else if (b >= 0xE0) {
+                extra = 2;
+                cp = b & 0x0F;
+                min = 0x800;
+            } else if (b >= 0xC0) {
+                extra = 1;
+                cp = b & 0x1F;
+                min = 0x80;
+            } else {
+                return -1;
+            }
+            for (int i = 0; i < extra; i++) {
+                int next = nextByte();
+                if (next == -1) {
+                    return -1;
+                }
+                if ((next & 0xC0) != 0x80) {
+                    pushedBack = next;
+                    return -1;
+                }
+                cp = (cp << 6) | (next & 0x3F);
+            }
+            if (cp < min || cp > Character.MAX_CODE_POINT
+                    || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+                return -1;
+            }
+            return cp;
+        }
+
+        /**
+         * Moves on to the next word. Returns false once the file has no
+         * more words.
+         */
+        public boolean advance() {
+            word.setLength(0);
+            boolean inWord = false;
+            while (true) {
+                int b = nextByte();
+                if (b == -1) {
+                    return inWord;
+                }
+
+                if (b < 0x80) {
+                    if (Character.isWhitespace(b)) {
+                        if (inWord) {
+                            return true;
+                        }
+                        continue;
+                    }
+                    inWord = true;
+                    DemoCollections.appendCleaned(b, word);
+                    continue;
+                }
+
+                int cp = decode(b);
+                if (cp != -1 && Character.isWhitespace(cp)) {
+                    if (inWord) {
+                        return true;
+                    }
+                    continue;
+                }
+                inWord = true;
+                if (cp != -1) {
+                    DemoCollections.appendCleaned(cp, word);
+                }
+            }
+        }
+
+        @Override
+        public int length() {
+            return word.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return word.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return word.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return word.toString();
+        }
+    }
+
+}
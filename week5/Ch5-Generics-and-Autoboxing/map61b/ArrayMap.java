@@ -3,21 +3,73 @@ package map61b;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
 public class ArrayMap<K, V> implements Map61B<K, V> {
 
+    /* Backing arrays never shrink below this many slots on their own. */
+    private static final int MIN_CAPACITY = 8;
+
+    /* Bulk operations on at most this many keys just scan for each one
+     * rather than build a hash index first. */
+    private static final int BULK_SCAN_LIMIT = 8;
+
     private K[] keys;
     private V[] values;
     int size;
 
+    /* Made on the first call to keys() and handed out after that. */
+    private KeyView keyView;
+
     public ArrayMap() {
         keys = (K[]) new Object[100];
         values = (V[]) new Object[100];
         size = 0;
     }
 
+    /**
+     * Resize our backing arrays so that they are of the given capacity.
+     */
+    private void resize(int capacity) {
+        K[] newKeys = (K[]) new Object[capacity];
+        V[] newValues = (V[]) new Object[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(values, 0, newValues, 0, size);
+        keys = newKeys;
+        values = newValues;
+    }
+
+    /**
+     * Makes sure the map can hold at least minCapacity mappings
+     * without resizing again.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > keys.length) {
+            resize(Math.max(minCapacity, keys.length * 2));
+        }
+    }
+
+    /**
+     * Shrinks the backing arrays down to exactly size slots.
+     */
+    public void trimToSize() {
+        if (size < keys.length) {
+            resize(size);
+        }
+    }
+
     /**
      * Returns true if this map contains a mapping for the specified key.
      */
@@ -49,23 +101,258 @@ public class ArrayMap<K, V> implements Map61B<K, V> {
         int idx = keyIndex(key);
         if (idx == -1) {
             // new key-value pair
+            if (size == keys.length) {
+                resize(Math.max(size * 2, MIN_CAPACITY));
+            }
             keys[size] = key;
             values[size] = value;
             size++;
+            keysChanged();
         } else {
             values[idx] = value;
         }
     }
 
     /**
-     * Returns a list of the keys in this map.
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map. Keys after it keep their
+     * relative order.
+     */
+    @Override
+    public V remove(K key) {
+        int idx = keyIndex(key);
+        if (idx == -1) {
+            return null;
+        }
+        V returnValue = values[idx];
+        int numMoved = size - idx - 1;
+        System.arraycopy(keys, idx + 1, keys, idx, numMoved);
+        System.arraycopy(values, idx + 1, values, idx, numMoved);
+        size--;
+        keysChanged();
+        keys[size] = null; // to avoid loitering
+        values[size] = null;
+
+        /* Only shrink once we drop to a quarter full, so alternating
+         * put/remove around a boundary can't thrash between sizes. */
+        if (keys.length > MIN_CAPACITY && size < keys.length / 4) {
+            resize(keys.length / 2);
+        }
+        return returnValue;
+    }
+
+    /**
+     * Puts every mapping of other into this map. Grows the arrays once
+     * up front, and past a few keys looks existing keys up in a
+     * temporary hash index instead of scanning for each one.
+     */
+    @Override
+    public void putAll(Map61B<? extends K, ? extends V> other) {
+        if (other.size() <= BULK_SCAN_LIMIT) {
+            other.forEach(this::put);
+            return;
+        }
+        ensureCapacity(size + other.size());
+        Map<K, Integer> index = keyIndexes();
+        other.forEach((k, v) -> {
+            Integer idx = index.get(k);
+            if (idx == null) {
+                index.put(k, size);
+                keys[size] = k;
+                values[size] = v;
+                size++;
+                keysChanged();
+            } else {
+                values[idx] = v;
+            }
+        });
+    }
+
+    /**
+     * Adds the value of each key in keys to out, in order, with null
+     * for a key that isn't in this map.
+     */
+    @Override
+    public void getAll(Collection<? extends K> keys, Collection<? super V> out) {
+        if (keys.size() <= BULK_SCAN_LIMIT) {
+            for (K key : keys) {
+                int idx = keyIndex(key);
+                out.add(idx == -1 ? null : values[idx]);
+            }
+            return;
+        }
+        Map<K, Integer> index = keyIndexes();
+        for (K key : keys) {
+            Integer idx = index.get(key);
+            out.add(idx == null ? null : values[idx]);
+        }
+    }
+
+    /**
+     * Removes every key in keys from this map in one pass over the
+     * arrays. Returns true if any were here.
+     */
+    @Override
+    public boolean removeAll(Collection<? extends K> keys) {
+        Set<Object> doomed = new HashSet<>(keys);
+        return removeIf((k, v) -> doomed.contains(k));
+    }
+
+    /**
+     * Removes every mapping for which filter returns true, sliding the
+     * kept entries down in place in one pass. Returns true if any were
+     * removed.
+     */
+    @Override
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test(keys[i], values[i])) {
+                keys[kept] = keys[i];
+                values[kept] = values[i];
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        for (int i = kept; i < size; i++) {
+            keys[i] = null; // to avoid loitering
+            values[i] = null;
+        }
+        size = kept;
+        keysChanged();
+        if (keys.length > MIN_CAPACITY && size < keys.length / 4) {
+            resize(Math.max(size * 2, MIN_CAPACITY));
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash index from each key to its position in the arrays.
+     */
+    private Map<K, Integer> keyIndexes() {
+        Map<K, Integer> index = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            index.put(keys[i], i);
+        }
+        return index;
+    }
+
+    /**
+     * Returns a read-only view of the keys in this map, in the order
+     * they were first put. The view reads straight from the backing
+     * array, so it sees later puts and removes, and only the first call
+     * allocates anything. Adding or removing keys while iterating over
+     * the view throws ConcurrentModificationException; replacing values
+     * with put doesn't.
      */
     public List<K> keys() {
-        List<K> keyList = new ArrayList<>();
+        if (keyView == null) {
+            keyView = new KeyView();
+        }
+        return keyView;
+    }
+
+    /**
+     * Notes that a key was added or removed, so an iteration over
+     * keys() that is under way fails instead of skipping or repeating
+     * keys.
+     */
+    private void keysChanged() {
+        if (keyView != null) {
+            keyView.changed();
+        }
+    }
+
+    private class KeyView extends AbstractList<K> implements RandomAccess {
+        /* AbstractList's iterators throw ConcurrentModificationException
+         * once modCount changes under them. */
+        void changed() {
+            modCount++;
+        }
+
+        @Override
+        public K get(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+            }
+            return keys[i];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Calls action on every key and its value, in the order they were
+     * first put, reading both straight from the backing arrays.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
         for (int i = 0; i < size; i++) {
-            keyList.add(keys[i]);
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Returns a cursor over the entries of this map. One cursor can walk
+     * the map any number of times via reset(), so a traversal that reuses
+     * it allocates nothing.
+     */
+    public EntryCursor cursor() {
+        return new EntryCursor();
+    }
+
+    /**
+     * A movable pointer at one entry of the map. Call next() before the
+     * first entry and after each one; key(), value() and setValue() act
+     * on the entry it last moved to. Removing from the map mid-walk
+     * leaves the cursor pointing at the wrong entry.
+     */
+    public class EntryCursor {
+        private int index;
+
+        private EntryCursor() {
+            index = -1;
+        }
+
+        /** Moves to the next entry. Returns false if there are no more. */
+        public boolean next() {
+            if (index < size) {
+                index++;
+            }
+            return index < size;
+        }
+
+        public K key() {
+            checkPosition();
+            return keys[index];
+        }
+
+        public V value() {
+            checkPosition();
+            return values[index];
+        }
+
+        /** Replaces the value of the current entry. */
+        public void setValue(V value) {
+            checkPosition();
+            values[index] = value;
+        }
+
+        /** Moves back to before the first entry. */
+        public void reset() {
+            index = -1;
+        }
+
+        private void checkPosition() {
+            if (index < 0 || index >= size) {
+                throw new NoSuchElementException("Cursor is not at an entry");
+            }
         }
-        return keyList;
     }
 
     /**
@@ -87,6 +374,93 @@ public class ArrayMap<K, V> implements Map61B<K, V> {
         assertEquals((Integer) 5, am.get(2)); // error!
     }
 
+    @Test
+    public void testTraversal() {
+        ArrayMap<String, Integer> m = new ArrayMap<>();
+        m.put("horse", 3);
+        m.put("fish", 9);
+        m.put("house", 10);
+
+        List<String> keys = m.keys();
+        assertEquals(3, keys.size());
+        assertEquals("fish", keys.get(1));
+        m.remove("horse");
+        assertEquals("fish", keys.get(0));
+        assertSame(keys, m.keys());
+
+        StringBuilder seen = new StringBuilder();
+        m.forEach((k, v) -> seen.append(k).append('=').append(v).append(' '));
+        assertEquals("fish=9 house=10 ", seen.toString());
+
+        ArrayMap<String, Integer>.EntryCursor c = m.cursor();
+        for (int pass = 0; pass < 2; pass++) {
+            c.reset();
+            while (c.next()) {
+                c.setValue(c.value() + 1);
+            }
+        }
+        assertEquals((Integer) 11, m.get("fish"));
+        assertEquals((Integer) 12, m.get("house"));
+    }
+
+    @Test
+    public void testKeysFailFast() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i);
+        }
+        /* Changing values is fine mid-iteration. */
+        for (int k : m.keys()) {
+            m.put(k, -k);
+        }
+        assertEquals((Integer) (-9), m.get(9));
+
+        try {
+            for (int k : m.keys()) {
+                if (k == 2) {
+                    m.remove(k);
+                }
+            }
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(9, m.size());
+        }
+        try {
+            for (int k : m.keys()) {
+                m.put(k + 100, k);
+            }
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(10, m.size());
+        }
+    }
+
+    @Test
+    public void testBulk() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        ArrayMap<Integer, Integer> other = new ArrayMap<>();
+        for (int i = 0; i < 50; i++) {
+            m.put(i, i);
+            other.put(i + 25, -i);
+        }
+        m.putAll(other);
+        assertEquals(75, m.size());
+        assertEquals((Integer) 24, m.get(24));
+        assertEquals((Integer) (-5), m.get(30));
+        assertEquals((Integer) 70, m.keys().get(70));
+
+        List<Integer> out = new java.util.ArrayList<>();
+        m.getAll(Arrays.asList(3, 40, 100), out);
+        assertEquals(Arrays.asList(3, -15, null), out);
+
+        assertTrue(m.removeIf((k, v) -> k % 2 == 0));
+        assertFalse(m.removeIf((k, v) -> k % 2 == 0));
+        assertTrue(m.removeAll(Arrays.asList(1, 3, 1000)));
+        assertEquals(35, m.size());
+        assertEquals((Integer) 5, m.keys().get(0));
+        assertFalse(m.containsKey(3));
+    }
+
     public static void main(String[] args) {
         ArrayMap<String, Integer> m = new ArrayMap<>();
         m.put("horse", 3);
@@ -0,0 +1,490 @@
+package map61b;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * An OrderedMap61B on a left-leaning red-black tree, which is a binary
+ * search tree kept balanced by coloring the links between nodes. Every
+ * path from the root to a null link has the same number of black links
+ * and no node has two red links, so the height stays within 2 lg n and
+ * get, put, min, max, floor and ceiling all take O(log n) time.
+ */
+public class LLRBMap<K extends Comparable<K>, V> implements OrderedMap61B<K, V> {
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    private class Node {
+        K key;
+        V value;
+        Node left;
+        Node right;
+        /* Color of the link from the parent to this node. */
+        boolean color;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+            this.color = RED;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public LLRBMap() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return getNode(key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or null if
+     * the key isn't in this map.
+     */
+    @Override
+    public V get(K key) {
+        Node n = getNode(key);
+        if (n == null) {
+            return null;
+        }
+        return n.value;
+    }
+
+    private Node getNode(K key) {
+        Node n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp < 0) {
+                n = n.left;
+            } else if (cmp > 0) {
+                n = n.right;
+            } else {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     */
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Can't put null key");
+        }
+        root = put(root, key, value);
+        root.color = BLACK;
+    }
+
+    /**
+     * Puts key in the subtree rooted at n and returns the new root of
+     * that subtree, fixing any right-leaning or doubled red links on the
+     * way back up.
+     */
+    private Node put(Node n, K key, V value) {
+        if (n == null) {
+            size++;
+            return new Node(key, value);
+        }
+        int cmp = key.compareTo(n.key);
+        if (cmp < 0) {
+            n.left = put(n.left, key, value);
+        } else if (cmp > 0) {
+            n.right = put(n.right, key, value);
+        } else {
+            n.value = value;
+        }
+
+        if (isRed(n.right) && !isRed(n.left)) {
+            n = rotateLeft(n);
+        }
+        if (isRed(n.left) && isRed(n.left.left)) {
+            n = rotateRight(n);
+        }
+        if (isRed(n.left) && isRed(n.right)) {
+            flipColors(n);
+        }
+        return n;
+    }
+
+    /**
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map.
+     */
+    @Override
+    public V remove(K key) {
+        Node n = getNode(key);
+        if (n == null) {
+            return null;
+        }
+        V returnValue = n.value;
+        /* Going down, keep the current node or its left child red, so
+         * the key can be cut out of a 3- or 4-node without breaking
+         * black balance. */
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = RED;
+        }
+        root = remove(root, key);
+        size--;
+        if (root != null) {
+            root.color = BLACK;
+        }
+        return returnValue;
+    }
+
+    private Node remove(Node n, K key) {
+        if (key.compareTo(n.key) < 0) {
+            if (!isRed(n.left) && !isRed(n.left.left)) {
+                n = moveRedLeft(n);
+            }
+            n.left = remove(n.left, key);
+        } else {
+            if (isRed(n.left)) {
+                n = rotateRight(n);
+            }
+            if (key.compareTo(n.key) == 0 && n.right == null) {
+                return null;
+            }
+            if (!isRed(n.right) && !isRed(n.right.left)) {
+                n = moveRedRight(n);
+            }
+            if (key.compareTo(n.key) == 0) {
+                /* Replace n with its successor, then remove that. */
+                Node successor = n.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                n.key = successor.key;
+                n.value = successor.value;
+                n.right = removeMin(n.right);
+            } else {
+                n.right = remove(n.right, key);
+            }
+        }
+        return balance(n);
+    }
+
+    private Node removeMin(Node n) {
+        if (n.left == null) {
+            return null;
+        }
+        if (!isRed(n.left) && !isRed(n.left.left)) {
+            n = moveRedLeft(n);
+        }
+        n.left = removeMin(n.left);
+        return balance(n);
+    }
+
+    /* Makes n.left or one of its children red, borrowing from the right. */
+    private Node moveRedLeft(Node n) {
+        flipColorsDown(n);
+        if (isRed(n.right.left)) {
+            n.right = rotateRight(n.right);
+            n = rotateLeft(n);
+            flipColors(n);
+        }
+        return n;
+    }
+
+    /* Makes n.right or one of its children red, borrowing from the left. */
+    private Node moveRedRight(Node n) {
+        flipColorsDown(n);
+        if (isRed(n.left.left)) {
+            n = rotateRight(n);
+            flipColors(n);
+        }
+        return n;
+    }
+
+    /* Fixes right-leaning and doubled red links on the way back up. */
+    private Node balance(Node n) {
+        if (isRed(n.right) && !isRed(n.left)) {
+            n = rotateLeft(n);
+        }
+        if (isRed(n.left) && isRed(n.left.left)) {
+            n = rotateRight(n);
+        }
+        if (isRed(n.left) && isRed(n.right)) {
+            flipColors(n);
+        }
+        return n;
+    }
+
+    private boolean isRed(Node n) {
+        return n != null && n.color == RED;
+    }
+
+    private Node rotateLeft(Node n) {
+        Node x = n.right;
+        n.right = x.left;
+        x.left = n;
+        x.color = n.color;
+        n.color = RED;
+        return x;
+    }
+
+    private Node rotateRight(Node n) {
+        Node x = n.left;
+        n.left = x.right;
+        x.right = n;
+        x.color = n.color;
+        n.color = RED;
+        return x;
+    }
+
+    private void flipColors(Node n) {
+        n.color = RED;
+        n.left.color = BLACK;
+        n.right.color = BLACK;
+    }
+
+    /* The reverse of flipColors: merges n and its children into a 4-node. */
+    private void flipColorsDown(Node n) {
+        n.color = BLACK;
+        n.left.color = RED;
+        n.right.color = RED;
+    }
+
+    /**
+     * Returns a list of the keys in this map, in sorted order.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>(size);
+        for (K k : this) {
+            keyList.add(k);
+        }
+        return keyList;
+    }
+
+    @Override
+    public K min() {
+        if (root == null) {
+            throw new NoSuchElementException("Map is empty");
+        }
+        Node n = root;
+        while (n.left != null) {
+            n = n.left;
+        }
+        return n.key;
+    }
+
+    @Override
+    public K max() {
+        if (root == null) {
+            throw new NoSuchElementException("Map is empty");
+        }
+        Node n = root;
+        while (n.right != null) {
+            n = n.right;
+        }
+        return n.key;
+    }
+
+    @Override
+    public K floor(K key) {
+        K best = null;
+        Node n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp == 0) {
+                return n.key;
+            } else if (cmp < 0) {
+                n = n.left;
+            } else {
+                best = n.key;
+                n = n.right;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public K ceiling(K key) {
+        K best = null;
+        Node n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp == 0) {
+                return n.key;
+            } else if (cmp > 0) {
+                n = n.right;
+            } else {
+                best = n.key;
+                n = n.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns an iterator over all keys in sorted order.
+     */
+    @Override
+    public Iterator<K> iterator() {
+        return new RangeIterator(null, null);
+    }
+
+    @Override
+    public Iterable<K> keys(K lo, K hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Range ends can't be null");
+        }
+        return () -> new RangeIterator(lo, hi);
+    }
+
+    /**
+     * An in-order walk that keeps only the path of nodes still to visit
+     * on a stack, so it uses O(log n) space and finds the first key in
+     * O(log n) time. A null bound means unbounded on that side.
+     */
+    private class RangeIterator implements Iterator<K> {
+        private final Deque<Node> stack;
+        private final K hi;
+
+        RangeIterator(K lo, K hi) {
+            this.hi = hi;
+            stack = new ArrayDeque<>();
+            /* Push the nodes >= lo along the search path for lo; nodes
+             * below lo and their left subtrees are skipped entirely. */
+            Node n = root;
+            while (n != null) {
+                if (lo != null && lo.compareTo(n.key) > 0) {
+                    n = n.right;
+                } else {
+                    stack.push(n);
+                    n = n.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) <= 0);
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node n = stack.pop();
+            for (Node x = n.right; x != null; x = x.left) {
+                stack.push(x);
+            }
+            return n.key;
+        }
+    }
+
+    /**
+     * Returns true if every path from the root to a null link has the
+     * same number of black links, and red links only lean left, one at
+     * a time.
+     */
+    private boolean isBalanced() {
+        return blackHeight(root) != -1;
+    }
+
+    /** Returns the black height of n's subtree, or -1 if it's broken. */
+    private int blackHeight(Node n) {
+        if (n == null) {
+            return 0;
+        }
+        if (isRed(n.right) || (isRed(n) && isRed(n.left))) {
+            return -1;
+        }
+        int left = blackHeight(n.left);
+        int right = blackHeight(n.right);
+        if (left == -1 || left != right) {
+            return -1;
+        }
+        return left + (isRed(n) ? 0 : 1);
+    }
+
+    @Test
+    public void testOrderedOps() {
+        LLRBMap<String, Integer> m = new LLRBMap<>();
+        m.put("horse", 3);
+        m.put("fish", 9);
+        m.put("house", 10);
+        m.put("cat", 1);
+
+        assertEquals("cat", m.min());
+        assertEquals("house", m.max());
+        assertEquals("fish", m.floor("goat"));
+        assertEquals("horse", m.ceiling("goat"));
+        assertNull(m.floor("ant"));
+        assertNull(m.ceiling("zebra"));
+        assertEquals((Integer) 9, m.get("fish"));
+        assertNull(m.get("dog"));
+
+        List<String> range = new ArrayList<>();
+        for (String k : m.keys("dog", "horse")) {
+            range.add(k);
+        }
+        assertEquals(Arrays.asList("fish", "horse"), range);
+        assertEquals(Arrays.asList("cat", "fish", "horse", "house"), m.keys());
+    }
+
+    @Test
+    public void testAgainstTreeMap() {
+        LLRBMap<Integer, Integer> m = new LLRBMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int k = r.nextInt(5000);
+            m.put(k, i);
+            expected.put(k, i);
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(new ArrayList<>(expected.keySet()), m.keys());
+        for (int i = -1; i <= 5000; i += 7) {
+            assertEquals(expected.get(i), m.get(i));
+            assertEquals(expected.floorKey(i), m.floor(i));
+            assertEquals(expected.ceilingKey(i), m.ceiling(i));
+        }
+
+        for (int i = 0; i < 20000; i++) {
+            int k = r.nextInt(6000);
+            assertEquals(expected.remove(k), m.remove(k));
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(new ArrayList<>(expected.keySet()), m.keys());
+        assertTrue(m.isBalanced());
+
+        List<Integer> range = new ArrayList<>();
+        for (int k : m.keys(1000, 1100)) {
+            range.add(k);
+        }
+        assertEquals(new ArrayList<>(expected.subMap(1000, true, 1100, true).keySet()), range);
+    }
+
+}
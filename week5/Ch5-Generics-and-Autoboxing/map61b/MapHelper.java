@@ -20,12 +20,19 @@ public class MapHelper {
 
     /**
      * Returns the maximum of all keys in the given ArrayMap.
-     * Works only if keys can be compared.
+     * Works only if keys can be compared. An OrderedMap61B already
+     * knows its largest key, so that takes O(log n) instead of a scan.
      */
     public static <K extends Comparable<K>, V> K maxKey(Map61B<K, V> map) {
+        if (map instanceof OrderedMap61B) {
+            return ((OrderedMap61B<K, V>) map).max();
+        }
+        /* Indexing skips the iterator, so a map whose keys() is a view
+         * (like ArrayMap's) is scanned without allocating. */
         List<K> keyList = map.keys();
         K largest = keyList.get(0);
-        for (K k : keyList) {
+        for (int i = 1; i < keyList.size(); i++) {
+            K k = keyList.get(i);
             if (k.compareTo(largest) > 0) {
                 largest = k;
             }
@@ -59,4 +66,14 @@ public class MapHelper {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testMaxKeyOrdered() {
+        Map61B<String, Integer> m = new LLRBMap<>();
+        m.put("horse", 3);
+        m.put("fish", 9);
+        m.put("house", 10);
+
+        assertEquals("house", MapHelper.maxKey(m));
+    }
+
 }
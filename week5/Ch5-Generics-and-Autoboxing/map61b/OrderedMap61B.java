@@ -0,0 +1,37 @@
+package map61b;
+
+/**
+ * A Map61B whose keys are kept in sorted order, so the smallest and
+ * largest keys and the keys near any given key can be found directly.
+ */
+public interface OrderedMap61B<K extends Comparable<K>, V> extends Map61B<K, V>, Iterable<K> {
+    /**
+     * Returns the smallest key in this map. Throws NoSuchElementException
+     * if the map is empty.
+     */
+    K min();
+
+    /**
+     * Returns the largest key in this map. Throws NoSuchElementException
+     * if the map is empty.
+     */
+    K max();
+
+    /**
+     * Returns the largest key less than or equal to key, or null if
+     * there is none.
+     */
+    K floor(K key);
+
+    /**
+     * Returns the smallest key greater than or equal to key, or null if
+     * there is none.
+     */
+    K ceiling(K key);
+
+    /**
+     * Returns the keys from lo to hi (both inclusive) in sorted order.
+     * Keys are found as the iteration goes rather than copied up front.
+     */
+    Iterable<K> keys(K lo, K hi);
+}
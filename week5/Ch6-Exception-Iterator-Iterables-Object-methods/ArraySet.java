@@ -2,16 +2,139 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-/* Naive implementation of ArraySet, where resizing is not
-* taken into account. */
+/* ArraySet whose items still sit in insertion order in a backing array
+* that grows and shrinks like AList's, with an open-addressing hash
+* index on top (like HashArrayMap's), so contains and add take O(1)
+* instead of scanning every item.
+*
+* The set also keeps the sum of its items' hashCodes up to date, which
+* is its hashCode (the same rule java.util.Set uses). equals can then
+* reject most unequal sets without looking at a single item. As with
+* any hashed set, items must not change their hashCode while inside. */
 public class ArraySet<T> implements Iterable<T> {
 
+    /* Backing array never shrinks below this many slots on its own. */
+    private static final int MIN_CAPACITY = 8;
+
     private T[] items;
     private int size;
 
+    /* Each slot holds (item index + 1), so 0 marks an empty slot. The
+     * table length is a power of two and at least twice items.length,
+     * which keeps it at most half full. */
+    private int[] slots;
+
+    /* Sum of the hashCodes of every item in the set. */
+    private int hashSum;
+
+    /* While every item is of this one Comparable class and the items
+     * are in strictly increasing natural order, the set operations can
+     * merge instead of probe. null otherwise. */
+    private Class<?> sortedClass;
+
+    /* The set operations merge two sorted sets only if neither is more
+     * than this many times bigger; otherwise probing is cheaper. */
+    private static final int MERGE_RATIO = 4;
+
     public ArraySet() {
         items = (T[]) new Object[100];
+        slots = new int[tableSizeFor(items.length)];
         size = 0;
+        hashSum = 0;
+        sortedClass = null;
+    }
+
+    /**
+     * Makes a set of the first size items, which must all be different.
+     * Builds the hash index once instead of checking each item on add.
+     */
+    private ArraySet(T[] items, int size, Class<?> sortedClass) {
+        this.items = items;
+        this.size = size;
+        this.sortedClass = size == 0 ? null : sortedClass;
+        slots = new int[tableSizeFor(items.length)];
+        rebuildIndex();
+        hashSum = 0;
+        for (int i = 0; i < size; i++) {
+            hashSum += items[i].hashCode();
+        }
+    }
+
+    /**
+     * Returns the smallest power of two that is at least twice capacity.
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = 2;
+        while (n < capacity * 2) {
+            n *= 2;
+        }
+        return n;
+    }
+
+    /**
+     * Resize our backing array so that it is of the given capacity,
+     * and rebuild the hash index to match.
+     */
+    private void resize(int capacity) {
+        T[] newItems = (T[]) new Object[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        items = newItems;
+        slots = new int[tableSizeFor(capacity)];
+        rebuildIndex();
+    }
+
+    /**
+     * Puts every item into the (empty) hash index.
+     */
+    private void rebuildIndex() {
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(items[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Spreads the high bits of hashCode into the low bits, since the
+     * table index only looks at the low bits.
+     */
+    private static int hash(Object item) {
+        int h = item.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot holding item, or the empty slot where it would go.
+     */
+    private int findSlot(Object item) {
+        int mask = slots.length - 1;
+        int slot = hash(item) & mask;
+        while (slots[slot] != 0 && !items[slots[slot] - 1].equals(item)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Makes sure the set can hold at least minCapacity items
+     * without resizing again.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > items.length) {
+            resize(Math.max(minCapacity, items.length * 2));
+        }
+    }
+
+    /**
+     * Shrinks the backing array down to exactly size slots.
+     */
+    public void trimToSize() {
+        if (size < items.length) {
+            resize(size);
+        }
     }
 
     /**
@@ -21,23 +144,307 @@ public class ArraySet<T> implements Iterable<T> {
         if (item == null) {
             throw new IllegalArgumentException("Can't add null");
         }
-        if (contains(item)) {
+        int slot = findSlot(item);
+        if (slots[slot] != 0) {
             return;
         }
+        if (size == items.length) {
+            resize(Math.max(size * 2, MIN_CAPACITY));
+            slot = findSlot(item);
+        }
+        if (size == 0) {
+            sortedClass = item instanceof Comparable ? item.getClass() : null;
+        } else if (item.getClass() != sortedClass || !precedes(items[size - 1], item)) {
+            sortedClass = null;
+        }
         items[size] = item;
         size++;
+        slots[slot] = size;
+        hashSum += item.hashCode();
     }
 
     /**
-     * check to see if ArraySet contains the value
+     * Returns true if a comes strictly before b in natural order. Both
+     * must be of the same Comparable class.
      */
-    public boolean contains(T item) {
+    private static boolean precedes(Object a, Object b) {
+        return compare(a, b) < 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Returns true if both sets are sorted, hold the same class of item
+     * and are close enough in size that walking both beats probing the
+     * bigger one.
+     */
+    private boolean canMerge(ArraySet<?> other) {
+        if (sortedClass == null || sortedClass != other.sortedClass
+                || size == 0 || other.size == 0) {
+            return false;
+        }
+        int small = Math.min(size, other.size);
+        int big = Math.max(size, other.size);
+        return big / small <= MERGE_RATIO;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int capacity) {
+        return (E[]) new Object[Math.max(capacity, MIN_CAPACITY)];
+    }
+
+    /**
+     * Returns a new set of the items in this set or other: this set's
+     * items in their order, then other's new ones. If both sets are
+     * sorted, the result is sorted too.
+     */
+    public ArraySet<T> union(ArraySet<? extends T> other) {
+        T[] result = newArray(size + other.size);
+        int n = 0;
+        if (canMerge(other)) {
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                int cmp = compare(items[i], other.items[j]);
+                if (cmp == 0 && !items[i].equals(other.items[j])) {
+                    break;
+                } else if (cmp <= 0) {
+                    result[n++] = items[i++];
+                    if (cmp == 0) {
+                        j++;
+                    }
+                } else {
+                    result[n++] = other.items[j++];
+                }
+            }
+            if (i == size || j == other.size) {
+                while (i < size) {
+                    result[n++] = items[i++];
+                }
+                while (j < other.size) {
+                    result[n++] = other.items[j++];
+                }
+                return new ArraySet<>(result, n, sortedClass);
+            }
+            /* Items that compare equal but aren't: fall back to probing. */
+        }
+
+        /* This set's items are already unique, so only other's need
+         * checking, against this set's index. */
+        System.arraycopy(items, 0, result, 0, size);
+        n = size;
+        for (int j = 0; j < other.size; j++) {
+            if (!contains(other.items[j])) {
+                result[n++] = other.items[j];
+            }
+        }
+        return new ArraySet<>(result, n, n == size ? sortedClass : null);
+    }
+
+    /**
+     * Returns a new set of the items in both this set and other, in the
+     * order of the smaller of the two.
+     */
+    public ArraySet<T> intersection(ArraySet<? extends T> other) {
+        if (canMerge(other)) {
+            T[] result = newArray(Math.min(size, other.size));
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            boolean merged = true;
+            while (i < size && j < other.size) {
+                int cmp = compare(items[i], other.items[j]);
+                if (cmp < 0) {
+                    i++;
+                } else if (cmp > 0) {
+                    j++;
+                } else if (items[i].equals(other.items[j])) {
+                    result[n++] = items[i];
+                    i++;
+                    j++;
+                } else {
+                    merged = false;
+                    break;
+                }
+            }
+            if (merged) {
+                return new ArraySet<>(result, n, sortedClass);
+            }
+        }
+
+        /* Walk the smaller set and look its items up in the bigger one. */
+        ArraySet<? extends T> small = size <= other.size ? this : other;
+        ArraySet<? extends T> big = small == this ? other : this;
+        T[] result = newArray(small.size);
+        int n = 0;
+        for (int i = 0; i < small.size; i++) {
+            if (big.containsItem(small.items[i])) {
+                result[n++] = small.items[i];
+            }
+        }
+        return new ArraySet<>(result, n, small.sortedClass);
+    }
+
+    /**
+     * Returns a new set of the items in this set but not in other, in
+     * this set's order.
+     */
+    public ArraySet<T> difference(ArraySet<? extends T> other) {
+        T[] result = newArray(size);
+        if (canMerge(other)) {
+            int n = 0;
+            int j = 0;
+            int i = 0;
+            for (; i < size; i++) {
+                j = skipBelow(other, j, items[i]);
+                if (j < 0) {
+                    break;
+                }
+                if (j == other.size || compare(other.items[j], items[i]) != 0) {
+                    result[n++] = items[i];
+                }
+            }
+            if (i == size) {
+                return new ArraySet<>(result, n, sortedClass);
+            }
+        }
+        int n = 0;
         for (int i = 0; i < size; i++) {
-            if (item.equals(items[i])) {
+            if (!other.containsItem(items[i])) {
+                result[n++] = items[i];
+            }
+        }
+        return new ArraySet<>(result, n, sortedClass);
+    }
+
+    /**
+     * Returns the first index from j on of an item of the sorted set s
+     * that isn't below item, or s.size if there is none. Returns -1 if
+     * that item compares equal to item without being equal, since then
+     * merging can't tell whether item is in s.
+     */
+    private static int skipBelow(ArraySet<?> s, int j, Object item) {
+        while (j < s.size && compare(s.items[j], item) < 0) {
+            j++;
+        }
+        if (j < s.size && compare(s.items[j], item) == 0 && !s.items[j].equals(item)) {
+            return -1;
+        }
+        return j;
+    }
+
+    /**
+     * Returns true if every item of this set is also in other.
+     */
+    public boolean isSubsetOf(ArraySet<? extends T> other) {
+        if (size > other.size) {
+            return false;
+        }
+        if (canMerge(other)) {
+            int j = 0;
+            int i = 0;
+            for (; i < size; i++) {
+                j = skipBelow(other, j, items[i]);
+                if (j < 0) {
+                    break;
+                }
+                if (j == other.size || compare(other.items[j], items[i]) != 0) {
+                    return false;
+                }
+            }
+            if (i == size) {
                 return true;
             }
         }
-        return false;
+        for (int i = 0; i < size; i++) {
+            if (!other.containsItem(items[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the value from the set if present. Returns whether
+     * the set changed.
+     */
+    public boolean remove(T item) {
+        if (item == null) {
+            return false;
+        }
+        int slot = findSlot(item);
+        if (slots[slot] == 0) {
+            return false;
+        }
+        int idx = slots[slot] - 1;
+        hashSum -= items[idx].hashCode();
+        deleteSlot(slot);
+
+        System.arraycopy(items, idx + 1, items, idx, size - idx - 1);
+        size--;
+        items[size] = null; // to avoid loitering
+
+        renumberFrom(idx);
+
+        /* Halve at 25% usage rather than 50%, otherwise one add right
+         * after a shrink would immediately force a grow. */
+        if (items.length > MIN_CAPACITY && size < items.length / 4) {
+            resize(items.length / 2);
+        }
+        return true;
+    }
+
+    /**
+     * Points the slots of items[idx] onward back at their items, after
+     * remove slid each of them down by one. A moved item's slot still
+     * says i + 2, which is how it's found without comparing items.
+     */
+    private void renumberFrom(int idx) {
+        int mask = slots.length - 1;
+        for (int i = idx; i < size; i++) {
+            int s = hash(items[i]) & mask;
+            while (slots[s] != i + 2) {
+                s = (s + 1) & mask;
+            }
+            slots[s] = i + 1;
+        }
+    }
+
+    /**
+     * Backward-shift deletion, as in HashArrayMap: clears the slot and
+     * pulls later members of its probe run into the gap, so probing
+     * never stops early at an empty slot.
+     */
+    private void deleteSlot(int hole) {
+        int mask = slots.length - 1;
+        int i = (hole + 1) & mask;
+        while (slots[i] != 0) {
+            int home = hash(items[slots[i] - 1]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[hole] = 0;
+    }
+
+    /**
+     * check to see if ArraySet contains the value
+     */
+    public boolean contains(T item) {
+        return containsItem(item);
+    }
+
+    /* contains for an item of any type, for sets of a subtype of T. */
+    private boolean containsItem(Object item) {
+        if (item == null) {
+            return false;
+        }
+        return slots[findSlot(item)] != 0;
     }
 
     /**
@@ -99,6 +506,7 @@ public class ArraySet<T> implements Iterable<T> {
 
     public static <E> ArraySet<E> of(E... elements) {
         ArraySet<E> returnSet = new ArraySet<>();
+        returnSet.ensureCapacity(elements.length);
         for (E el : elements) {
             returnSet.add(el);
         }
@@ -111,7 +519,9 @@ public class ArraySet<T> implements Iterable<T> {
             return true;
         }
         if (o instanceof ArraySet otherAset) {
-            if (otherAset.size() != this.size()) {
+            /* Equal sets have equal hash sums, so a mismatch settles it
+             * without looking at any items. */
+            if (otherAset.size() != this.size() || otherAset.hashSum != this.hashSum) {
                 return false;
             }
             for (T item : this) {
@@ -124,6 +534,15 @@ public class ArraySet<T> implements Iterable<T> {
         return false;
     }
 
+    /**
+     * Returns the sum of the items' hashCodes, kept up to date on every
+     * add and remove, so this takes O(1).
+     */
+    @Override
+    public int hashCode() {
+        return hashSum;
+    }
+
     public static void main(String[] args) {
         /* ArraySet example */
         ArraySet<Integer> aset = new ArraySet<>();
@@ -151,6 +570,16 @@ public class ArraySet<T> implements Iterable<T> {
         // .of() method
         ArraySet<Integer> asetOfInts = ArraySet.<Integer>of(1, 2, 3);
         System.out.println(asetOfInts);
+
+        // resizing
+        ArraySet<Integer> bigSet = new ArraySet<>();
+        for (int i = 0; i < 1000; i++) {
+            bigSet.add(i);
+        }
+        for (int i = 0; i < 990; i++) {
+            bigSet.remove(i);
+        }
+        System.out.println(bigSet);
     }
 
 }
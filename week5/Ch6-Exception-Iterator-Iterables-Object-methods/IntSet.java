@@ -0,0 +1,746 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/* A set of ints stored as a compressed bitmap, in the style of Roaring
+* bitmaps. An int's top 16 bits pick a container and its bottom 16 bits
+* are stored in that container, which is one of:
+*   - a sorted char[] of the values, while it holds at most 4096 of them
+*   - a plain long[1024] bitmap of all 65536, once it holds more.
+* So sparse sets cost about 2 bytes per value and dense ranges about one
+* bit per value, and no value is ever boxed.
+*
+* add, contains and remove binary search a sorted array of containers
+* and then at most a 4096-entry array, or index straight into a bitmap,
+* so they take constant time however big the set gets. union,
+* intersection and difference work container by container, a 64-bit
+* word at a time when both sides are bitmaps. size() is kept up to
+* date, so it is O(1). */
+public class IntSet implements Iterable<Integer> {
+
+    /* An array container holds at most this many values. */
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /* Key of each container (see highOf), sorted. */
+    private char[] highs;
+    private Container[] containers;
+    private int numContainers;
+    private int size;
+
+    public IntSet() {
+        highs = new char[4];
+        containers = new Container[4];
+        numContainers = 0;
+        size = 0;
+    }
+
+    /** Returns a set of the given values. */
+    public static IntSet of(int... values) {
+        IntSet returnSet = new IntSet();
+        for (int v : values) {
+            returnSet.add(v);
+        }
+        return returnSet;
+    }
+
+    /** Returns a set of the ints in the given set, e.g. an ArraySet<Integer>. */
+    public static IntSet of(Iterable<Integer> values) {
+        IntSet returnSet = new IntSet();
+        for (int v : values) {
+            returnSet.add(v);
+        }
+        return returnSet;
+    }
+
+    /** Returns a set of every int from lo (inclusive) to hi (exclusive). */
+    public static IntSet range(int lo, int hi) {
+        IntSet returnSet = new IntSet();
+        for (long v = lo; v < hi; v++) {
+            returnSet.add((int) v);
+        }
+        return returnSet;
+    }
+
+    /** Returns an ArraySet of the same ints, in increasing order. */
+    public ArraySet<Integer> toArraySet() {
+        ArraySet<Integer> returnSet = new ArraySet<>();
+        returnSet.ensureCapacity(size);
+        forEachInt(returnSet::add);
+        return returnSet;
+    }
+
+    /**
+     * Add the value to the set if not already present. Returns whether
+     * the set changed.
+     */
+    public boolean add(int x) {
+        char high = highOf(x);
+        int idx = containerIndex(high);
+        if (idx < 0) {
+            idx = -idx - 1;
+            insertContainer(idx, high, new ArrayContainer());
+        }
+        Container c = containers[idx];
+        int before = c.cardinality();
+        containers[idx] = c.add((char) x);
+        if (containers[idx].cardinality() == before) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the value from the set if present. Returns whether the
+     * set changed.
+     */
+    public boolean remove(int x) {
+        int idx = containerIndex(highOf(x));
+        if (idx < 0) {
+            return false;
+        }
+        Container c = containers[idx];
+        int before = c.cardinality();
+        c = c.remove((char) x);
+        if (c.cardinality() == before) {
+            return false;
+        }
+        size--;
+        if (c.cardinality() == 0) {
+            removeContainer(idx);
+        } else {
+            containers[idx] = c;
+        }
+        return true;
+    }
+
+    /**
+     * check to see if IntSet contains the value
+     */
+    public boolean contains(int x) {
+        int idx = containerIndex(highOf(x));
+        return idx >= 0 && containers[idx].contains((char) x);
+    }
+
+    /**
+     * return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /** Returns a new set of the values in this set or other. */
+    public IntSet union(IntSet other) {
+        IntSet result = new IntSet();
+        int i = 0;
+        int j = 0;
+        while (i < numContainers || j < other.numContainers) {
+            int cmp = compareHighs(other, i, j);
+            if (cmp < 0) {
+                result.appendContainer(highs[i], containers[i].copy());
+                i++;
+            } else if (cmp > 0) {
+                result.appendContainer(other.highs[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(highs[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /** Returns a new set of the values in both this set and other. */
+    public IntSet intersection(IntSet other) {
+        IntSet result = new IntSet();
+        int i = 0;
+        int j = 0;
+        while (i < numContainers && j < other.numContainers) {
+            int cmp = compareHighs(other, i, j);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                result.appendContainer(highs[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /** Returns a new set of the values in this set but not in other. */
+    public IntSet difference(IntSet other) {
+        IntSet result = new IntSet();
+        int i = 0;
+        int j = 0;
+        while (i < numContainers) {
+            int cmp = j < other.numContainers ? compareHighs(other, i, j) : -1;
+            if (cmp < 0) {
+                result.appendContainer(highs[i], containers[i].copy());
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                result.appendContainer(highs[i], containers[i].andNot(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /** Calls action on every value in the set, in increasing order. */
+    public void forEachInt(IntConsumer action) {
+        for (int i = 0; i < numContainers; i++) {
+            containers[i].forEach(base(highs[i]), action);
+        }
+    }
+
+    /** Returns the values in the set, in increasing order. */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int[] pos = {0};
+        forEachInt(v -> {
+            values[pos[0]] = v;
+            pos[0]++;
+        });
+        return values;
+    }
+
+    /**
+     * Returns an iterator over the values in increasing order. Each
+     * value is boxed; forEachInt avoids that.
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new IntSetIterator();
+    }
+
+    private class IntSetIterator implements Iterator<Integer> {
+        private int containerIdx;
+        /* Low 16 bits of the next value in containers[containerIdx]. */
+        private int nextLow;
+
+        public IntSetIterator() {
+            containerIdx = 0;
+            nextLow = numContainers > 0 ? containers[0].nextValue(0) : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return containerIdx < numContainers;
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int returnValue = base(highs[containerIdx]) | nextLow;
+            nextLow = containers[containerIdx].nextValue(nextLow + 1);
+            if (nextLow == -1) {
+                containerIdx++;
+                if (containerIdx < numContainers) {
+                    nextLow = containers[containerIdx].nextValue(0);
+                }
+            }
+            return returnValue;
+        }
+    }
+
+    @Override
+    public String toString() {
+        List<String> listOfItems = new ArrayList<>();
+        forEachInt(v -> listOfItems.add(Integer.toString(v)));
+        return "{" + String.join(", ", listOfItems) + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof IntSet other) {
+            if (other.size != size || other.numContainers != numContainers) {
+                return false;
+            }
+            for (int i = 0; i < numContainers; i++) {
+                if (highs[i] != other.highs[i] || !containers[i].sameValues(other.containers[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sum of the values, which is what a java.util.Set or an
+     * ArraySet of the same Integers would return.
+     */
+    @Override
+    public int hashCode() {
+        int[] sum = {0};
+        forEachInt(v -> sum[0] += v);
+        return sum[0];
+    }
+
+    /**
+     * Returns the key of x's container: its top 16 bits with the sign
+     * bit flipped, so that containers sorted by key hold negative values
+     * first and come out in increasing order.
+     */
+    private static char highOf(int x) {
+        return (char) ((x >>> 16) ^ 0x8000);
+    }
+
+    /** Returns the smallest value that could be in the container with key high. */
+    private static int base(char high) {
+        return (high ^ 0x8000) << 16;
+    }
+
+    /** Compares highs[i] here with other.highs[j]; a missing side sorts last. */
+    private int compareHighs(IntSet other, int i, int j) {
+        if (i >= numContainers) {
+            return 1;
+        }
+        if (j >= other.numContainers) {
+            return -1;
+        }
+        return Character.compare(highs[i], other.highs[j]);
+    }
+
+    /**
+     * Returns the index of the container for high, or (-(insertion
+     * point) - 1) if there is none, like Arrays.binarySearch.
+     */
+    private int containerIndex(char high) {
+        return Arrays.binarySearch(highs, 0, numContainers, high);
+    }
+
+    private void insertContainer(int idx, char high, Container c) {
+        if (numContainers == highs.length) {
+            highs = Arrays.copyOf(highs, numContainers * 2);
+            containers = Arrays.copyOf(containers, numContainers * 2);
+        }
+        System.arraycopy(highs, idx, highs, idx + 1, numContainers - idx);
+        System.arraycopy(containers, idx, containers, idx + 1, numContainers - idx);
+        highs[idx] = high;
+        containers[idx] = c;
+        numContainers++;
+    }
+
+    private void removeContainer(int idx) {
+        System.arraycopy(highs, idx + 1, highs, idx, numContainers - idx - 1);
+        System.arraycopy(containers, idx + 1, containers, idx, numContainers - idx - 1);
+        numContainers--;
+        containers[numContainers] = null; // to avoid loitering
+    }
+
+    /** Adds c after every existing container, unless c is empty. */
+    private void appendContainer(char high, Container c) {
+        if (c.cardinality() == 0) {
+            return;
+        }
+        insertContainer(numContainers, high, c);
+        size += c.cardinality();
+    }
+
+    public static void main(String[] args) {
+        IntSet evens = new IntSet();
+        for (int i = 0; i < 100000; i += 2) {
+            evens.add(i);
+        }
+        IntSet small = IntSet.of(ArraySet.of(1, 2, 3, 4, 99998, 100000));
+        System.out.println(small.intersection(evens)); // {2, 4, 99998}
+        System.out.println(small.difference(evens).toArraySet()); // {1, 3, 100000}
+        System.out.println(evens.union(small).size()); // 50003
+    }
+
+    /* The low 16 bits of the values sharing one set of top 16 bits. The
+     * add, remove and set-operation methods return the container to use
+     * from then on, which is a new one when the size crosses ARRAY_MAX. */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract Container or(Container other);
+
+        abstract Container and(Container other);
+
+        abstract Container andNot(Container other);
+
+        /** Returns the smallest value >= from, or -1 if there is none. */
+        abstract int nextValue(int from);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract Container copy();
+
+        abstract boolean sameValues(Container other);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int idx = Arrays.binarySearch(values, 0, cardinality, low);
+            if (idx >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            idx = -idx - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(cardinality * 2, 4), ARRAY_MAX));
+            }
+            System.arraycopy(values, idx, values, idx + 1, cardinality - idx);
+            values[idx] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int idx = Arrays.binarySearch(values, 0, cardinality, low);
+            if (idx >= 0) {
+                System.arraycopy(values, idx + 1, values, idx, cardinality - idx - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            char[] merged = new char[cardinality + o.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < o.cardinality) {
+                char a = values[i];
+                char b = o.values[j];
+                if (a < b) {
+                    merged[n++] = a;
+                    i++;
+                } else if (a > b) {
+                    merged[n++] = b;
+                    j++;
+                } else {
+                    merged[n++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                merged[n++] = values[i++];
+            }
+            while (j < o.cardinality) {
+                merged[n++] = o.values[j++];
+            }
+            ArrayContainer result = new ArrayContainer(merged, n);
+            if (n > ARRAY_MAX) {
+                return result.toBitmap();
+            }
+            return result;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] kept = new char[cardinality];
+            int n = 0;
+            if (other instanceof BitmapContainer) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        kept[n++] = values[i];
+                    }
+                }
+                return new ArrayContainer(kept, n);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < o.cardinality) {
+                if (values[i] < o.values[j]) {
+                    i++;
+                } else if (values[i] > o.values[j]) {
+                    j++;
+                } else {
+                    kept[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(kept, n);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] kept = new char[cardinality];
+            int n = 0;
+            if (other instanceof BitmapContainer) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        kept[n++] = values[i];
+                    }
+                }
+                return new ArrayContainer(kept, n);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            int j = 0;
+            for (int i = 0; i < cardinality; i++) {
+                while (j < o.cardinality && o.values[j] < values[i]) {
+                    j++;
+                }
+                if (j == o.cardinality || o.values[j] != values[i]) {
+                    kept[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(kept, n);
+        }
+
+        @Override
+        int nextValue(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+            int idx = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (idx < 0) {
+                idx = -idx - 1;
+            }
+            return idx < cardinality ? values[idx] : -1;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        @Override
+        boolean sameValues(Container other) {
+            if (other.cardinality() != cardinality) {
+                return false;
+            }
+            if (other instanceof ArrayContainer a) {
+                return Arrays.equals(values, 0, cardinality, a.values, 0, cardinality);
+            }
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Returns a container for the given bitmap words: an array one
+         * if there are few enough bits set, otherwise a bitmap.
+         */
+        static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long w : words) {
+                cardinality += Long.bitCount(w);
+            }
+            BitmapContainer result = new BitmapContainer(words, cardinality);
+            if (cardinality <= ARRAY_MAX) {
+                return result.toArray();
+            }
+            return result;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                words[low >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof BitmapContainer o) {
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= o.words[i];
+                }
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    result[o.values[i] >>> 6] |= 1L << o.values[i];
+                }
+            }
+            return fromWords(result);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer o = (BitmapContainer) other;
+            long[] result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & o.words[i];
+            }
+            return fromWords(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof BitmapContainer o) {
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~o.words[i];
+                }
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    result[o.values[i] >>> 6] &= ~(1L << o.values[i]);
+                }
+            }
+            return fromWords(result);
+        }
+
+        @Override
+        int nextValue(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+            int i = from >>> 6;
+            long w = words[i] & (-1L << from);
+            while (w == 0) {
+                i++;
+                if (i == BITMAP_WORDS) {
+                    return -1;
+                }
+                w = words[i];
+            }
+            return i * 64 + Long.numberOfTrailingZeros(w);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    action.accept(high | (i * 64 + Long.numberOfTrailingZeros(w)));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        boolean sameValues(Container other) {
+            if (other instanceof BitmapContainer b) {
+                return b.cardinality == cardinality && Arrays.equals(words, b.words);
+            }
+            return other.sameValues(this);
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 1)];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    values[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests ArraySet against java.util's sets: add and remove, and the set
+ * algebra on sorted sets (which merge) and unsorted ones (which probe).
+ */
+public class TestArraySet {
+
+    private static <T> Set<T> toSet(ArraySet<T> s) {
+        Set<T> result = new LinkedHashSet<>();
+        for (T item : s) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static <T> ArraySet<T> toArraySet(List<T> items) {
+        ArraySet<T> s = new ArraySet<>();
+        for (T item : items) {
+            s.add(item);
+        }
+        return s;
+    }
+
+    private static List<Integer> randomItems(Random r, int n, boolean sorted) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            items.add(r.nextInt(1000));
+        }
+        if (sorted) {
+            Collections.sort(items);
+        }
+        return items;
+    }
+
+    @Test
+    public void testMatchesHashSet() {
+        Random r = new Random(61);
+        for (int round = 0; round < 500; round++) {
+            /* Sizes from equal to far apart, so both merge and probe run. */
+            List<Integer> a = randomItems(r, r.nextInt(300), r.nextBoolean());
+            List<Integer> b = randomItems(r, r.nextInt(r.nextBoolean() ? 300 : 3000), r.nextBoolean());
+            ArraySet<Integer> x = toArraySet(a);
+            ArraySet<Integer> y = toArraySet(b);
+            Set<Integer> expectedX = new LinkedHashSet<>(a);
+            Set<Integer> expectedY = new LinkedHashSet<>(b);
+
+            Set<Integer> union = new HashSet<>(expectedX);
+            union.addAll(expectedY);
+            Set<Integer> intersection = new HashSet<>(expectedX);
+            intersection.retainAll(expectedY);
+            Set<Integer> difference = new LinkedHashSet<>(expectedX);
+            difference.removeAll(expectedY);
+
+            assertEquals(union, toSet(x.union(y)));
+            assertEquals(union.size(), x.union(y).size());
+            assertEquals(intersection, toSet(x.intersection(y)));
+            assertEquals(intersection.size(), x.intersection(y).size());
+            /* difference keeps this set's order. */
+            assertEquals(new ArrayList<>(difference), new ArrayList<>(toSet(x.difference(y))));
+            assertEquals(difference.size(), x.difference(y).size());
+            assertEquals(expectedY.containsAll(expectedX), x.isSubsetOf(y));
+            assertTrue(x.intersection(y).isSubsetOf(y));
+            assertTrue(x.isSubsetOf(x.union(y)));
+        }
+    }
+
+    @Test
+    public void testResultsAreUsableSets() {
+        ArraySet<Integer> x = ArraySet.of(1, 2, 3, 4);
+        ArraySet<Integer> y = ArraySet.of(3, 4, 5);
+        ArraySet<Integer> u = x.union(y);
+        assertEquals(ArraySet.of(1, 2, 3, 4, 5), u);
+        assertEquals(ArraySet.of(1, 2, 3, 4, 5).hashCode(), u.hashCode());
+        u.add(6);
+        assertTrue(u.contains(6));
+        assertTrue(u.remove(1));
+        assertFalse(u.contains(1));
+        assertEquals(ArraySet.of(1, 2, 3, 4), x);
+    }
+
+    /**
+     * 1.0 and 1.00 compare equal but aren't equal, so they are different
+     * items, even though both sets are sorted.
+     */
+    @Test
+    public void testCompareToInconsistentWithEquals() {
+        ArraySet<BigDecimal> x = ArraySet.of(new BigDecimal("1.0"));
+        ArraySet<BigDecimal> y = ArraySet.of(new BigDecimal("1.00"));
+        assertNotEquals(x, y);
+        assertEquals(2, x.union(y).size());
+        assertEquals(0, x.intersection(y).size());
+        assertEquals(x, x.difference(y));
+        assertFalse(x.isSubsetOf(y));
+    }
+
+    /** Each set is sorted on its own, but the two can't be compared. */
+    @Test
+    public void testSortedSetsOfDifferentClasses() {
+        ArraySet<Object> numbers = ArraySet.of(1, 2, 3);
+        ArraySet<Object> words = ArraySet.of("a", "b", "c");
+        assertEquals(6, numbers.union(words).size());
+        assertEquals(0, numbers.intersection(words).size());
+        assertEquals(numbers, numbers.difference(words));
+        assertFalse(numbers.isSubsetOf(words));
+    }
+
+    /** add and remove keep insertion order, like LinkedHashSet. */
+    @Test
+    public void testAddRemoveMatchesLinkedHashSet() {
+        ArraySet<Integer> s = new ArraySet<>();
+        Set<Integer> expected = new LinkedHashSet<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int x = r.nextInt(r.nextBoolean() ? 50 : 2000);
+            if (r.nextInt(5) < 3) {
+                s.add(x);
+                expected.add(x);
+            } else {
+                assertEquals(expected.remove(x), s.remove(x));
+            }
+            assertEquals(expected.contains(x), s.contains(x));
+            if (i % 500 == 0) {
+                assertEquals(new ArrayList<>(expected), new ArrayList<>(toSet(s)));
+                assertEquals(expected.hashCode(), s.hashCode());
+            }
+        }
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(toSet(s)));
+    }
+
+    @Test
+    public void testEmptySets() {
+        ArraySet<Integer> empty = new ArraySet<>();
+        ArraySet<Integer> x = ArraySet.of(1, 2);
+        assertEquals(x, empty.union(x));
+        assertEquals(0, x.intersection(empty).size());
+        assertTrue(empty.isSubsetOf(x));
+        assertFalse(x.isSubsetOf(empty));
+
+        /* A set emptied by remove still merges correctly afterwards. */
+        ArraySet<Integer> y = ArraySet.of(1);
+        y.remove(1);
+        assertEquals(x, x.union(y));
+        y.add(2);
+        assertEquals(ArraySet.of(2), x.intersection(y));
+    }
+
+}
@@ -0,0 +1,158 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Tests IntSet against java.util.TreeSet, which iterates in the same
+ * increasing order.
+ */
+public class TestIntSet {
+
+    /* Values per container, and the most an array container holds. */
+    private static final int CHUNK = 1 << 16;
+    private static final int ARRAY_MAX = 4096;
+
+    private static void assertMatches(TreeSet<Integer> expected, IntSet s) {
+        assertEquals(expected.size(), s.size());
+        List<Integer> actual = new ArrayList<>();
+        for (int x : s) {
+            actual.add(x);
+        }
+        assertEquals(new ArrayList<>(expected), actual);
+        int[] array = s.toArray();
+        assertEquals(expected.size(), array.length);
+        int i = 0;
+        for (int x : expected) {
+            assertEquals(x, array[i]);
+            i++;
+        }
+    }
+
+    /**
+     * Returns a random set that mixes sparse containers (arrays) with
+     * dense ones (bitmaps), on both sides of zero.
+     */
+    private static TreeSet<Integer> randomValues(Random r) {
+        TreeSet<Integer> values = new TreeSet<>();
+        int containers = 1 + r.nextInt(4);
+        for (int c = 0; c < containers; c++) {
+            int base = (r.nextInt(8) - 4) * CHUNK;
+            int n = r.nextBoolean() ? r.nextInt(200) : ARRAY_MAX + r.nextInt(20000);
+            for (int i = 0; i < n; i++) {
+                values.add(base + r.nextInt(CHUNK));
+            }
+        }
+        return values;
+    }
+
+    private static IntSet toIntSet(Iterable<Integer> values) {
+        IntSet s = new IntSet();
+        for (int x : values) {
+            s.add(x);
+        }
+        return s;
+    }
+
+    /** Crossing ARRAY_MAX in either direction keeps every value. */
+    @Test
+    public void testArrayToBitmapAndBack() {
+        IntSet s = new IntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < ARRAY_MAX; i++) {
+            assertTrue(s.add(i * 7));
+            expected.add(i * 7);
+        }
+        assertMatches(expected, s);
+
+        /* One more makes it a bitmap. */
+        assertTrue(s.add(1));
+        assertFalse(s.add(1));
+        expected.add(1);
+        assertMatches(expected, s);
+        assertTrue(s.contains(1));
+        assertTrue(s.contains((ARRAY_MAX - 1) * 7));
+        assertFalse(s.contains(2));
+
+        /* And one fewer makes it an array again. */
+        assertTrue(s.remove(1));
+        assertFalse(s.remove(1));
+        expected.remove(1);
+        assertMatches(expected, s);
+
+        for (int i = 0; i < ARRAY_MAX; i += 2) {
+            s.remove(i * 7);
+            expected.remove(i * 7);
+        }
+        assertMatches(expected, s);
+    }
+
+    /** Sets with the same values are equal however they were built. */
+    @Test
+    public void testEqualsAcrossRepresentations() {
+        IntSet grown = new IntSet();
+        for (int i = 0; i <= ARRAY_MAX; i++) {
+            grown.add(i);
+        }
+        grown.remove(ARRAY_MAX);
+        IntSet direct = IntSet.range(0, ARRAY_MAX);
+        assertEquals(direct, grown);
+        assertEquals(grown, direct);
+        assertEquals(direct.hashCode(), grown.hashCode());
+
+        grown.remove(0);
+        grown.add(-1);
+        assertNotEquals(direct, grown);
+        assertEquals(IntSet.range(0, 10000), IntSet.range(0, 10000).union(IntSet.of(5)));
+        assertNotEquals(IntSet.range(0, 10000), IntSet.range(1, 10001));
+    }
+
+    @Test
+    public void testNegativeValues() {
+        int[] values = {Integer.MAX_VALUE, -1, 0, Integer.MIN_VALUE, 65536, -65536, -65537, 1};
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int x : values) {
+            expected.add(x);
+        }
+        IntSet s = IntSet.of(values);
+        assertMatches(expected, s);
+        for (int x : values) {
+            assertTrue(s.contains(x));
+        }
+        assertFalse(s.contains(2));
+        assertMatches(new TreeSet<>(expected.subSet(-70000, 70000)),
+                s.intersection(IntSet.range(-70000, 70000)));
+    }
+
+    @Test
+    public void testSetAlgebraMatchesTreeSet() {
+        Random r = new Random(61);
+        for (int round = 0; round < 60; round++) {
+            TreeSet<Integer> a = randomValues(r);
+            TreeSet<Integer> b = randomValues(r);
+            IntSet x = toIntSet(a);
+            IntSet y = toIntSet(b);
+            assertMatches(a, x);
+
+            TreeSet<Integer> union = new TreeSet<>(a);
+            union.addAll(b);
+            TreeSet<Integer> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+            TreeSet<Integer> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+
+            assertMatches(union, x.union(y));
+            assertMatches(intersection, x.intersection(y));
+            assertMatches(difference, x.difference(y));
+            assertEquals(toIntSet(union), x.union(y));
+
+            /* The operations don't change their inputs. */
+            assertMatches(a, x);
+            assertMatches(b, y);
+        }
+    }
+
+}
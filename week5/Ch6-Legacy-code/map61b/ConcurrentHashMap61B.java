@@ -0,0 +1,445 @@
+package map61b;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/* A thread-safe Map61B. Keys are split across a fixed number of
+ * segments by hash, and each segment is a small chained hash table with
+ * its own lock, so writers only wait for writers in the same segment.
+ *
+ * Reads take no lock at all. Every field a reader follows (the segment's
+ * table, each bucket head, each node's next and value) is volatile or
+ * written through an AtomicReferenceArray, and writers never change a
+ * node's key or leave a chain half-linked. A reader racing a writer
+ * sees the map either before or after that write.
+ *
+ * putIfAbsent, computeIfAbsent, compute and remove each happen
+ * atomically under their segment's lock. size() and iteration don't
+ * lock anything, so while other threads are writing they may miss or
+ * include those writes. */
+public class ConcurrentHashMap61B<K, V> implements Map61B<K, V>, Iterable<K> {
+
+    public static final int DEFAULT_CONCURRENCY = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 2;
+
+    /* Buckets are doubled once a segment is 3/4 full. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        volatile AtomicReferenceArray<Node<K, V>> table;
+        /* Only changed while holding the lock. */
+        volatile int count;
+
+        Segment(int capacity) {
+            table = new AtomicReferenceArray<>(capacity);
+            count = 0;
+        }
+
+        /** Returns the node for key in this segment, or null. */
+        Node<K, V> find(int h, Object key) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for (Node<K, V> e = tab.get(h & (tab.length() - 1)); e != null; e = e.next) {
+                if (e.hash == h && e.key.equals(key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        /** Adds a new node at the head of its bucket. Needs the lock. */
+        void insert(int h, K key, V value) {
+            if (count + 1 > table.length() * LOAD_FACTOR) {
+                rehash();
+            }
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            int i = h & (tab.length() - 1);
+            tab.set(i, new Node<>(h, key, value, tab.get(i)));
+            count++;
+        }
+
+        /** Unlinks the node for key, if any, and returns it. Needs the lock. */
+        Node<K, V> delete(int h, Object key) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            int i = h & (tab.length() - 1);
+            Node<K, V> prev = null;
+            for (Node<K, V> e = tab.get(i); e != null; prev = e, e = e.next) {
+                if (e.hash == h && e.key.equals(key)) {
+                    /* A reader already on e still finds the rest of the
+                     * chain through e.next, which isn't touched. */
+                    if (prev == null) {
+                        tab.set(i, e.next);
+                    } else {
+                        prev.next = e.next;
+                    }
+                    count--;
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Moves every node into a table twice the size. Nodes are copied
+         * rather than relinked, so readers still walking the old table
+         * see it unchanged. Needs the lock.
+         */
+        void rehash() {
+            AtomicReferenceArray<Node<K, V>> old = table;
+            AtomicReferenceArray<Node<K, V>> tab = new AtomicReferenceArray<>(old.length() * 2);
+            int mask = tab.length() - 1;
+            for (int i = 0; i < old.length(); i++) {
+                for (Node<K, V> e = old.get(i); e != null; e = e.next) {
+                    int j = e.hash & mask;
+                    tab.set(j, new Node<>(e.hash, e.key, e.value, tab.get(j)));
+                }
+            }
+            table = tab;
+        }
+    }
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+
+    public ConcurrentHashMap61B() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Creates a map that lets about concurrency threads write at once,
+     * rounded up to a power of two.
+     */
+    public ConcurrentHashMap61B(int concurrency) {
+        if (concurrency < 1 || concurrency > 1 << 16) {
+            throw new IllegalArgumentException("Bad concurrency " + concurrency);
+        }
+        int n = 1;
+        while (n < concurrency) {
+            n *= 2;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Segment<K, V>[] newSegments = (Segment<K, V>[]) new Segment[n];
+        for (int i = 0; i < n; i++) {
+            newSegments[i] = new Segment<>(MIN_SEGMENT_CAPACITY);
+        }
+        segments = newSegments;
+        /* Segments use the top bits of the hash and buckets the bottom
+         * ones, so keys in one segment still spread over its buckets. */
+        segmentShift = 32 - Integer.numberOfTrailingZeros(n);
+    }
+
+    /**
+     * Mixes every bit of hashCode into every bit of the result (murmur3's
+     * finalizer). Segments use the top bits and buckets the low ones, and
+     * hashCodes like Integer's or short Strings' only vary in their low
+     * bits, so without this they would all land in one segment.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the index of the segment key goes in. For tests. */
+    int segmentIndex(Object key) {
+        if (segments.length == 1) {
+            return 0;
+        }
+        return hash(key) >>> segmentShift;
+    }
+
+    private Segment<K, V> segmentFor(int h) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[h >>> segmentShift];
+    }
+
+    private static void checkNotNull(Object key, Object value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Can't use null keys or values");
+        }
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return false;
+        }
+        int h = hash(key);
+        return segmentFor(h).find(h, key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or null if
+     * there is none. Never blocks.
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int h = hash(key);
+        Node<K, V> e = segmentFor(h).find(h, key);
+        if (e == null) {
+            return null;
+        }
+        return e.value;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        long total = 0;
+        for (Segment<K, V> s : segments) {
+            total += s.count;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     */
+    @Override
+    public void put(K key, V value) {
+        checkNotNull(key, value);
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock();
+        try {
+            Node<K, V> e = s.find(h, key);
+            if (e != null) {
+                e.value = value;
+            } else {
+                s.insert(h, key, value);
+            }
+        } finally {
+            s.unlock();
+        }
+    }
+
+    /**
+     * Maps key to value unless key already has a value. Returns the value
+     * that was already there, or null if value was put.
+     */
+    public V putIfAbsent(K key, V value) {
+        checkNotNull(key, value);
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock();
+        try {
+            Node<K, V> e = s.find(h, key);
+            if (e != null) {
+                return e.value;
+            }
+            s.insert(h, key, value);
+            return null;
+        } finally {
+            s.unlock();
+        }
+    }
+
+    /**
+     * Returns the value for key, first computing and putting one with
+     * mappingFunction if key has none. If mappingFunction returns null,
+     * nothing is put and null is returned. Other writes to the same
+     * segment wait for mappingFunction, so keep it short.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        /* Skip the lock when the key is already there. */
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        checkNotNull(key, mappingFunction);
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock();
+        try {
+            Node<K, V> e = s.find(h, key);
+            if (e != null) {
+                return e.value;
+            }
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                s.insert(h, key, value);
+            }
+            return value;
+        } finally {
+            s.unlock();
+        }
+    }
+
+    /**
+     * Replaces the value for key with remappingFunction(key, old value),
+     * where old value is null if key has none, and returns the new value.
+     * A null result removes key. Other writes to the same segment wait
+     * for remappingFunction, so keep it short.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        checkNotNull(key, remappingFunction);
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock();
+        try {
+            Node<K, V> e = s.find(h, key);
+            V oldValue = e == null ? null : e.value;
+            V newValue = remappingFunction.apply(key, oldValue);
+            if (newValue == null) {
+                if (e != null) {
+                    s.delete(h, key);
+                }
+            } else if (e != null) {
+                e.value = newValue;
+            } else {
+                s.insert(h, key, newValue);
+            }
+            return newValue;
+        } finally {
+            s.unlock();
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map.
+     */
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock();
+        try {
+            Node<K, V> e = s.delete(h, key);
+            return e == null ? null : e.value;
+        } finally {
+            s.unlock();
+        }
+    }
+
+    /**
+     * Removes every mapping for which filter returns true. Each segment
+     * is checked and pruned under its lock, so a mapping is only removed
+     * if filter approved its current value. Returns true if any were
+     * removed.
+     */
+    @Override
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        boolean changed = false;
+        for (Segment<K, V> s : segments) {
+            s.lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = s.table;
+                for (int i = 0; i < tab.length(); i++) {
+                    for (Node<K, V> e = tab.get(i); e != null; e = e.next) {
+                        if (filter.test(e.key, e.value)) {
+                            s.delete(e.hash, e.key);
+                            changed = true;
+                        }
+                    }
+                }
+            } finally {
+                s.unlock();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns a list of the keys in this map, in no particular order.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>();
+        for (K k : this) {
+            keyList.add(k);
+        }
+        return keyList;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /* Walks each segment's table as it was when the walk reached it. */
+    private class KeyIterator implements Iterator<K> {
+        private int segmentIndex;
+        private AtomicReferenceArray<Node<K, V>> table;
+        private int bucket;
+        private Node<K, V> nextNode;
+
+        public KeyIterator() {
+            segmentIndex = 0;
+            table = segments[0].table;
+            bucket = 0;
+            advance();
+        }
+
+        /** Moves nextNode to the first node at or after the current bucket. */
+        private void advance() {
+            while (nextNode == null) {
+                if (bucket == table.length()) {
+                    segmentIndex++;
+                    if (segmentIndex == segments.length) {
+                        return;
+                    }
+                    table = segments[segmentIndex].table;
+                    bucket = 0;
+                }
+                nextNode = table.get(bucket);
+                bucket++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public K next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            K returnKey = nextNode.key;
+            nextNode = nextNode.next;
+            advance();
+            return returnKey;
+        }
+    }
+
+}
@@ -0,0 +1,283 @@
+package map61b;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/* ArrayMap with a hash index on top of the parallel keys/values arrays.
+ * Entries still live in insertion order, so iteration and keys() behave
+ * exactly like ArrayMap, but lookups probe an open-addressing table
+ * instead of scanning every key. */
+public class HashArrayMap<K, V> implements Map61B<K, V>, Iterable<K> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private K[] keys;
+    private V[] values;
+    int size;
+
+    /* Each slot holds (entry index + 1), so 0 marks an empty slot.
+     * The table length is always a power of two and at least twice
+     * the length of keys, which keeps the load factor at or below 1/2. */
+    private int[] slots;
+
+    public HashArrayMap() {
+        keys = (K[]) new Object[INITIAL_CAPACITY];
+        values = (V[]) new Object[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+        size = 0;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    private class KeyIterator implements Iterator<K> {
+        private int curIndex;
+
+        public KeyIterator() {
+            curIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return curIndex < size;
+        }
+
+        @Override
+        public K next() {
+            K returnKey = keys[curIndex];
+            curIndex++;
+            return returnKey;
+        }
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return keyIndex(key) > -1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     */
+    @Override
+    public V get(K key) {
+        int index = keyIndex(key);
+        if (index == -1) {
+            return null;
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     */
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Can't put null key");
+        }
+        int slot = findSlot(key, hash(key));
+        if (slots[slot] != 0) {
+            values[slots[slot] - 1] = value;
+            return;
+        }
+
+        if (size == keys.length) {
+            resize(size * 2);
+            slot = findSlot(key, hash(key));
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        slots[slot] = size;
+    }
+
+    /**
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map. Later entries slide down
+     * one to keep insertion order, so this costs time proportional to
+     * how many were put after key.
+     */
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, hash(key));
+        if (slots[slot] == 0) {
+            return null;
+        }
+        int idx = slots[slot] - 1;
+        V returnValue = values[idx];
+        deleteSlot(slot);
+
+        int numMoved = size - idx - 1;
+        System.arraycopy(keys, idx + 1, keys, idx, numMoved);
+        System.arraycopy(values, idx + 1, values, idx, numMoved);
+        size--;
+        keys[size] = null; // to avoid loitering
+        values[size] = null;
+
+        /* Each moved entry's slot still holds its old index + 1. Find
+         * it by that number, since keys no longer line up with it. */
+        int mask = slots.length - 1;
+        for (int i = idx; i < size; i++) {
+            int s = hash(keys[i]) & mask;
+            while (slots[s] != i + 2) {
+                s = (s + 1) & mask;
+            }
+            slots[s] = i + 1;
+        }
+        return returnValue;
+    }
+
+    /**
+     * Removes every mapping for which filter returns true, sliding the
+     * kept entries down in place and rebuilding the hash index once.
+     * Returns true if any were removed.
+     */
+    @Override
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test(keys[i], values[i])) {
+                keys[kept] = keys[i];
+                values[kept] = values[i];
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        for (int i = kept; i < size; i++) {
+            keys[i] = null; // to avoid loitering
+            values[i] = null;
+        }
+        size = kept;
+        rebuildSlots();
+        return true;
+    }
+
+    /**
+     * Returns a list of the keys in this map.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keyList.add(keys[i]);
+        }
+        return keyList;
+    }
+
+    /**
+     * Calls action on every key and its value, in insertion order,
+     * reading both straight from the entry arrays.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Returns the index of the key, if it exists. Otherwise returns -1.
+     */
+    private int keyIndex(K key) {
+        if (key == null) {
+            return -1;
+        }
+        return slots[findSlot(key, hash(key))] - 1;
+    }
+
+    /**
+     * Returns the slot holding key, or the empty slot where it would go.
+     * Uses linear probing, which never loops forever since the table
+     * is at most half full.
+     */
+    private int findSlot(K key, int h) {
+        int mask = slots.length - 1;
+        int slot = h & mask;
+        while (slots[slot] != 0 && !keys[slots[slot] - 1].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads the high bits of hashCode into the low bits, since the
+     * table index only looks at the low bits.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Resizes the entry arrays to the given capacity and rebuilds the
+     * hash index to match.
+     */
+    private void resize(int capacity) {
+        K[] newKeys = (K[]) new Object[capacity];
+        V[] newValues = (V[]) new Object[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(values, 0, newValues, 0, size);
+        keys = newKeys;
+        values = newValues;
+
+        slots = new int[capacity * 2];
+        rebuildSlots();
+    }
+
+    /**
+     * Clears the hash index and adds every entry back into it.
+     */
+    private void rebuildSlots() {
+        Arrays.fill(slots, 0);
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Empties the given slot, moving later slots of the same probe run
+     * back so no lookup stops early at the hole. A slot can move back
+     * only if the hole is between its home slot and where it is now.
+     */
+    private void deleteSlot(int hole) {
+        int mask = slots.length - 1;
+        int i = (hole + 1) & mask;
+        while (slots[i] != 0) {
+            int home = hash(keys[slots[i] - 1]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[hole] = 0;
+    }
+
+}
@@ -1,6 +1,10 @@
 package map61b;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
 public interface Map61B<K, V> {
     /**
@@ -24,8 +28,74 @@ public interface Map61B<K, V> {
      */
     void put(K key, V value);
 
+    /**
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map.
+     */
+    V remove(K key);
+
     /**
      * Returns a list of the keys in this map.
      */
     List<K> keys();
+
+    /**
+     * Calls action on every key and its value. Maps that can walk their
+     * own storage override this to skip the get per key.
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        for (K key : keys()) {
+            action.accept(key, get(key));
+        }
+    }
+
+    /**
+     * Puts every mapping of other into this map.
+     */
+    default void putAll(Map61B<? extends K, ? extends V> other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * Adds the value of each key in keys to out, in order, with null
+     * for a key that isn't in this map.
+     */
+    default void getAll(Collection<? extends K> keys, Collection<? super V> out) {
+        for (K key : keys) {
+            out.add(containsKey(key) ? get(key) : null);
+        }
+    }
+
+    /**
+     * Removes every key in keys from this map. Returns true if any were
+     * here.
+     */
+    default boolean removeAll(Collection<? extends K> keys) {
+        boolean changed = false;
+        for (K key : keys) {
+            if (containsKey(key)) {
+                remove(key);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes every mapping for which filter returns true. Returns true
+     * if any were removed.
+     */
+    default boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        /* Pick first, then remove, since keys() may be a live view. */
+        List<K> doomed = new ArrayList<>();
+        forEach((k, v) -> {
+            if (filter.test(k, v)) {
+                doomed.add(k);
+            }
+        });
+        for (K key : doomed) {
+            remove(key);
+        }
+        return !doomed.isEmpty();
+    }
 }
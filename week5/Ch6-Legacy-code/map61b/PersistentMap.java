@@ -0,0 +1,511 @@
+package map61b;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/* A Map61B that survives restarts. Every put (and remove) is appended to
+ * a log file, and only an index from each key to where its latest
+ * record starts is kept in memory, so get is one read from the file.
+ *
+ * Log record: crc (int), key length (int), value length (int, -1 for a
+ * removal), key bytes, value bytes. The crc covers everything after it,
+ * so a record cut short by a crash is detected and dropped on reopen.
+ *
+ * close() writes the index to a second file (the log's name plus
+ * ".index"). Reopening loads that instead of reading the whole log, and
+ * only replays records appended after it was written. Without a usable
+ * index file, the log is scanned from the start.
+ *
+ * Overwritten and removed records stay in the log as garbage until
+ * compact() rewrites the log with just the live records. That also
+ * happens on its own once garbage outweighs live data. */
+public class PersistentMap<K, V> implements Map61B<K, V>, Iterable<K>, Closeable {
+
+    /* Turns keys and values into bytes and back. */
+    public interface Codec<T> {
+        byte[] encode(T item);
+
+        T decode(byte[] bytes);
+
+        /** Returns a codec built from the two conversion functions. */
+        static <T> Codec<T> of(Function<T, byte[]> encoder, Function<byte[], T> decoder) {
+            return new Codec<T>() {
+                @Override
+                public byte[] encode(T item) {
+                    return encoder.apply(item);
+                }
+
+                @Override
+                public T decode(byte[] bytes) {
+                    return decoder.apply(bytes);
+                }
+            };
+        }
+
+        Codec<String> STRINGS = of(s -> s.getBytes(StandardCharsets.UTF_8),
+                b -> new String(b, StandardCharsets.UTF_8));
+
+        Codec<Integer> INTEGERS = of(i -> ByteBuffer.allocate(4).putInt(i).array(),
+                b -> ByteBuffer.wrap(b).getInt());
+    }
+
+    private static final int HEADER_BYTES = 12;
+    private static final int INDEX_MAGIC = 0x61B1D0C5;
+
+    /* Puts are gathered here and written to the log in one go. */
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    /* Logs smaller than this are never compacted automatically. */
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+
+    /* Where a key's latest record is in the log. */
+    private static class Location {
+        final long offset;
+        final int length;
+
+        Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final Path logPath;
+    private final Path indexPath;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+
+    private FileChannel log;
+    private final ByteBuffer pending;
+    /* Bytes already written to the channel; pending holds the rest. */
+    private long written;
+    private long liveBytes;
+
+    private LinkedHashMap<K, Location> index;
+
+    /**
+     * Opens the map stored in the given log file, creating an empty one
+     * if the file doesn't exist yet.
+     */
+    public PersistentMap(String filename, Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.logPath = Paths.get(filename);
+        this.indexPath = Paths.get(filename + ".index");
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        pending = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        index = new LinkedHashMap<>();
+        try {
+            log = openLog();
+            long start = loadIndex(log.size());
+            written = replay(start);
+            /* Cut off a torn record at the end, so new ones follow the
+             * last good record. */
+            log.truncate(written);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not open " + logPath, e);
+        }
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return Collections.unmodifiableSet(index.keySet()).iterator();
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, read from
+     * the log file.
+     */
+    @Override
+    public V get(K key) {
+        Location loc = index.get(key);
+        if (loc == null) {
+            return null;
+        }
+        try {
+            flushIfNeeded(loc.offset + loc.length);
+            ByteBuffer record = readFully(loc.offset, loc.length);
+            int keyLength = record.getInt(4);
+            int valueLength = record.getInt(8);
+            byte[] value = new byte[valueLength];
+            record.position(HEADER_BYTES + keyLength);
+            record.get(value);
+            return valueCodec.decode(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map
+     * and appends the change to the log.
+     */
+    @Override
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Can't put null key or value");
+        }
+        Location loc = append(keyCodec.encode(key), valueCodec.encode(value));
+        Location old = index.put(key, loc);
+        if (old != null) {
+            liveBytes -= old.length;
+        }
+        liveBytes += loc.length;
+        compactIfWasteful();
+    }
+
+    /**
+     * Removes the mapping for the specified key and returns its value,
+     * or null if the key was not in this map.
+     */
+    @Override
+    public V remove(K key) {
+        if (!index.containsKey(key)) {
+            return null;
+        }
+        V returnValue = get(key);
+        append(keyCodec.encode(key), null);
+        liveBytes -= index.remove(key).length;
+        compactIfWasteful();
+        return returnValue;
+    }
+
+    /**
+     * Returns a list of the keys in this map, in the order they were
+     * first put.
+     */
+    @Override
+    public List<K> keys() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    /**
+     * Writes any buffered puts to the log and forces them to disk.
+     */
+    public void sync() {
+        try {
+            flush();
+            log.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest record of each key, dropping
+     * overwritten and removed records, and writes a fresh index file.
+     */
+    public void compact() {
+        Path tmp = Paths.get(logPath + ".compact");
+        /* The new locations go in a map of their own, which replaces the
+         * index only once the new log is in place. Until then, a failure
+         * leaves the map reading the old log just as before. */
+        LinkedHashMap<K, Location> moved = new LinkedHashMap<>();
+        long offset = 0;
+        try {
+            flush();
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Map.Entry<K, Location> e : index.entrySet()) {
+                    Location loc = e.getValue();
+                    ByteBuffer record = readFully(loc.offset, loc.length);
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                    moved.put(e.getKey(), new Location(offset, loc.length));
+                    offset += loc.length;
+                }
+                out.force(false);
+            }
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            log.close();
+            /* The old index points into the old log, so it must not
+             * outlive it even if we crash before saving the new one. */
+            Files.deleteIfExists(indexPath);
+            Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            /* The old log is still there; go back to it. */
+            deleteQuietly(tmp);
+            try {
+                log = openLog();
+            } catch (IOException reopen) {
+                e.addSuppressed(reopen);
+            }
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            log = openLog();
+            index = moved;
+            written = offset;
+            liveBytes = offset;
+            saveIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileChannel openLog() throws IOException {
+        return FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            /* Only a leftover temp file; the next compact replaces it. */
+        }
+    }
+
+    /**
+     * Writes everything to disk, saves the index so the next open is
+     * fast, and closes the log.
+     */
+    @Override
+    public void close() {
+        try {
+            sync();
+            saveIndex();
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds a record to the log and returns where it went. A null value
+     * marks key as removed.
+     */
+    private Location append(byte[] key, byte[] value) {
+        int valueLength = value == null ? -1 : value.length;
+        int length = HEADER_BYTES + key.length + Math.max(valueLength, 0);
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(0).putInt(key.length).putInt(valueLength).put(key);
+        if (value != null) {
+            record.put(value);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length - 4);
+        record.putInt(0, (int) crc.getValue());
+        record.flip();
+
+        long offset = written + pending.position();
+        try {
+            if (record.remaining() > pending.remaining()) {
+                flush();
+            }
+            if (record.remaining() > pending.capacity()) {
+                writeFully(record, written);
+                written += length;
+            } else {
+                pending.put(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Location(offset, length);
+    }
+
+    /** Writes pending records to the log. */
+    private void flush() throws IOException {
+        pending.flip();
+        int n = pending.remaining();
+        writeFully(pending, written);
+        written += n;
+        pending.clear();
+    }
+
+    /** Flushes if the log bytes before end are still in pending. */
+    private void flushIfNeeded(long end) throws IOException {
+        if (end > written) {
+            flush();
+        }
+    }
+
+    private void writeFully(ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += log.write(buf, position);
+        }
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (log.read(buf, position + buf.position()) < 0) {
+                throw new IOException("Log ends inside a record at " + position);
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private void compactIfWasteful() {
+        long total = written + pending.position();
+        if (total >= MIN_COMPACT_BYTES && total - liveBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads every record from start to the end of the log into the index
+     * and returns where the last intact record ends.
+     */
+    private long replay(long start) throws IOException {
+        long end = log.size();
+        long offset = start;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (offset + HEADER_BYTES <= end) {
+            header.clear();
+            while (header.hasRemaining() && log.read(header, offset + header.position()) >= 0) {
+                continue;
+            }
+            int keyLength = header.getInt(4);
+            int valueLength = header.getInt(8);
+            if (keyLength < 0 || valueLength < -1) {
+                break;
+            }
+            long length = (long) HEADER_BYTES + keyLength + Math.max(valueLength, 0);
+            if (length > Integer.MAX_VALUE || offset + length > end) {
+                break;
+            }
+
+            ByteBuffer record = readFully(offset, (int) length);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 4, (int) length - 4);
+            if ((int) crc.getValue() != record.getInt(0)) {
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            record.position(HEADER_BYTES);
+            record.get(keyBytes);
+            K key = keyCodec.decode(keyBytes);
+
+            Location old;
+            if (valueLength == -1) {
+                old = index.remove(key);
+            } else {
+                old = index.put(key, new Location(offset, (int) length));
+                liveBytes += length;
+            }
+            if (old != null) {
+                liveBytes -= old.length;
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * Fills the index from the index file, if there is one that matches
+     * this log, and returns how much of the log it covers. Returns 0,
+     * leaving the whole log to replay, if there isn't.
+     */
+    private long loadIndex(long logSize) {
+        if (!Files.exists(indexPath)) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(indexPath));
+             DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                return 0;
+            }
+            long covered = in.readLong();
+            int count = in.readInt();
+            if (covered > logSize || count < 0) {
+                return 0;
+            }
+            for (int i = 0; i < count; i++) {
+                long offset = in.readLong();
+                int length = in.readInt();
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                index.put(keyCodec.decode(key), new Location(offset, length));
+                liveBytes += length;
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(raw).readInt() != expected) {
+                throw new IOException("Index checksum mismatch");
+            }
+            return covered;
+        } catch (IOException | RuntimeException e) {
+            /* A damaged index costs a full scan, nothing more. */
+            index.clear();
+            liveBytes = 0;
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the index to the index file, replacing it all at once so a
+     * crash never leaves half an index behind.
+     */
+    private void saveIndex() throws IOException {
+        Path tmp = Paths.get(indexPath + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(written);
+            out.writeInt(index.size());
+            for (Map.Entry<K, Location> e : index.entrySet()) {
+                byte[] key = keyCodec.encode(e.getKey());
+                out.writeLong(e.getValue().offset);
+                out.writeInt(e.getValue().length);
+                out.writeInt(key.length);
+                out.write(key);
+            }
+            out.flush();
+            new DataOutputStream(raw).writeInt((int) crc.getValue());
+        }
+        Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
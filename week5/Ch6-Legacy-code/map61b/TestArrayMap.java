@@ -0,0 +1,101 @@
+package map61b;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests ArrayMap against java.util.LinkedHashMap, and that its live
+ * keys() view fails fast when keys change mid-iteration.
+ */
+public class TestArrayMap {
+
+    @Test
+    public void testMatchesLinkedHashMap() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        List<Integer> keys = m.keys();
+        Random r = new Random(61);
+        for (int i = 0; i < 5000; i++) {
+            int k = r.nextInt(300);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else {
+                m.put(k, i);
+                expected.put(k, i);
+            }
+        }
+        /* The view handed out at the start still reads the live keys. */
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), m.get(e.getKey()));
+        }
+    }
+
+    @Test
+    public void testKeysFailFastOnRemove() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i);
+        }
+        try {
+            for (int k : m.keys()) {
+                if (k == 2) {
+                    m.remove(k);
+                }
+            }
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(9, m.size());
+        }
+    }
+
+    @Test
+    public void testKeysFailFastOnBulkChanges() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        ArrayMap<Integer, Integer> other = new ArrayMap<>();
+        for (int i = 0; i < 20; i++) {
+            m.put(i, i);
+            other.put(i + 100, i);
+        }
+        try {
+            for (int k : m.keys()) {
+                m.putAll(other);
+            }
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(40, m.size());
+        }
+        try {
+            for (int k : m.keys()) {
+                m.removeIf((key, v) -> key >= 100);
+            }
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            assertEquals(20, m.size());
+        }
+    }
+
+    /** Replacing values doesn't change the keys, so it's allowed. */
+    @Test
+    public void testKeysAllowValueChanges() {
+        ArrayMap<Integer, Integer> m = new ArrayMap<>();
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i);
+        }
+        for (int k : m.keys()) {
+            m.put(k, -k);
+        }
+        assertFalse(m.removeIf((k, v) -> v > 0));
+        for (int k : m.keys()) {
+            assertEquals((Integer) (-k), m.get(k));
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+package map61b;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Tests ConcurrentHashMap61B on one thread against java.util.HashMap,
+ * then under contention. The contention tests repeat a small race many
+ * times and check that only allowed outcomes ever show up.
+ */
+public class TestConcurrentHashMap61B {
+
+    private static final int THREADS = 4;
+
+    /**
+     * Runs body(0) to body(threads - 1) on their own threads, all
+     * released at once, and rethrows the first failure.
+     */
+    private static void runConcurrently(int threads, IntConsumer body) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int id = i;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    body.accept(id);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            running.add(t);
+            t.start();
+        }
+        for (Thread t : running) {
+            t.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+
+    /** A remapping function that adds, updates and removes keys. */
+    private static Integer bumpOrDrop(Integer key, Integer v) {
+        if (v == null) {
+            return 1;
+        }
+        if (v % 3 == 0) {
+            return null;
+        }
+        return v + 1;
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        ConcurrentHashMap61B<Integer, Integer> m = new ConcurrentHashMap61B<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 100000; i++) {
+            int k = r.nextInt(3000);
+            switch (r.nextInt(5)) {
+                case 0:
+                    m.put(k, i);
+                    expected.put(k, i);
+                    break;
+                case 1:
+                    assertEquals(expected.putIfAbsent(k, i), m.putIfAbsent(k, i));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(k), m.remove(k));
+                    break;
+                case 3:
+                    assertEquals(expected.compute(k, TestConcurrentHashMap61B::bumpOrDrop),
+                            m.compute(k, TestConcurrentHashMap61B::bumpOrDrop));
+                    break;
+                default:
+                    assertEquals(expected.get(k), m.get(k));
+                    assertEquals(expected.containsKey(k), m.containsKey(k));
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected.keySet(), new HashSet<>(m.keys()));
+    }
+
+    /**
+     * Concurrent compute calls on shared keys never lose an increment.
+     */
+    @Test
+    public void testComputeCountsEveryIncrement() throws Exception {
+        ConcurrentHashMap61B<String, Integer> m = new ConcurrentHashMap61B<>();
+        int perThread = 50000;
+        runConcurrently(THREADS, id -> {
+            for (int i = 0; i < perThread; i++) {
+                m.compute("k" + (i % 100), (k, v) -> v == null ? 1 : v + 1);
+            }
+        });
+        int total = 0;
+        for (String k : m) {
+            total += m.get(k);
+        }
+        assertEquals(100, m.size());
+        assertEquals(THREADS * perThread, total);
+    }
+
+    /**
+     * Threads racing putIfAbsent on one key: exactly one wins, and every
+     * loser is told the winner's value.
+     */
+    @Test
+    public void testPutIfAbsentHasOneWinner() throws Exception {
+        for (int round = 0; round < 500; round++) {
+            ConcurrentHashMap61B<String, Integer> m = new ConcurrentHashMap61B<>();
+            Integer[] seen = new Integer[THREADS];
+            runConcurrently(THREADS, id -> seen[id] = m.putIfAbsent("babylon", id));
+
+            int winners = 0;
+            for (int id = 0; id < THREADS; id++) {
+                if (seen[id] == null) {
+                    winners++;
+                } else {
+                    assertEquals(m.get("babylon"), seen[id]);
+                }
+            }
+            assertEquals(1, winners);
+            assertEquals(1, m.size());
+        }
+    }
+
+    /**
+     * Lock-free readers always see keys that are never removed, with
+     * their values, while a writer grows the tables and unlinks nodes
+     * around them.
+     */
+    @Test
+    public void testReadsDuringResize() throws Exception {
+        ConcurrentHashMap61B<Integer, Integer> m = new ConcurrentHashMap61B<>(2);
+        int stable = 1000;
+        for (int k = 0; k < stable; k++) {
+            m.put(k, -k);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        runConcurrently(THREADS, id -> {
+            if (id == 0) {
+                try {
+                    for (int round = 0; round < 20; round++) {
+                        for (int k = stable; k < stable + 20000; k++) {
+                            m.put(k, k);
+                        }
+                        for (int k = stable; k < stable + 20000; k++) {
+                            assertEquals((Integer) k, m.remove(k));
+                        }
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            } else {
+                while (writing.get()) {
+                    for (int k = 0; k < stable; k++) {
+                        assertEquals((Integer) (-k), m.get(k));
+                    }
+                }
+            }
+        });
+        assertEquals(stable, m.size());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        ConcurrentHashMap61B<Integer, Integer> m = new ConcurrentHashMap61B<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int k = 0; k < 5000; k++) {
+            m.put(k, k * 7);
+            expected.put(k, k * 7);
+        }
+        assertTrue(m.removeIf((k, v) -> v % 3 == 0));
+        expected.values().removeIf(v -> v % 3 == 0);
+        assertFalse(m.removeIf((k, v) -> v % 3 == 0));
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected.keySet(), new HashSet<>(m.keys()));
+        for (int k = 0; k < 5000; k++) {
+            assertEquals(expected.get(k), m.get(k));
+        }
+    }
+
+    /**
+     * removeIf running alongside writers removes exactly the matching
+     * keys that were there before it started, and never a writer's key.
+     */
+    @Test
+    public void testRemoveIfDuringWrites() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            ConcurrentHashMap61B<Integer, Integer> m = new ConcurrentHashMap61B<>(4);
+            int stable = 5000;
+            for (int k = 0; k < stable; k++) {
+                m.put(k, k);
+            }
+            runConcurrently(THREADS, id -> {
+                if (id == 0) {
+                    m.removeIf((k, v) -> k < stable && v % 2 == 0);
+                } else {
+                    for (int k = stable + id; k < stable + 20000; k += THREADS) {
+                        m.put(k, k);
+                    }
+                }
+            });
+            for (int k = 0; k < stable; k++) {
+                assertEquals(k % 2 == 0, !m.containsKey(k));
+            }
+            assertEquals(stable / 2 + (THREADS - 1) * (20000 / THREADS), m.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullKey() {
+        new ConcurrentHashMap61B<String, Integer>().put(null, 1);
+    }
+
+    /**
+     * Keys whose hashCodes only differ in their low bits still spread
+     * over every segment, so their writers don't all share one lock.
+     */
+    @Test
+    public void testSequentialKeysSpreadOverSegments() {
+        ConcurrentHashMap61B<Object, Integer> m = new ConcurrentHashMap61B<>();
+        int segments = ConcurrentHashMap61B.DEFAULT_CONCURRENCY;
+        int n = 100000;
+        int[] intCounts = new int[segments];
+        int[] stringCounts = new int[segments];
+        for (int i = 0; i < n; i++) {
+            intCounts[m.segmentIndex(i)]++;
+            stringCounts[m.segmentIndex("key" + i)]++;
+        }
+        /* Each segment should get about n / segments keys. */
+        for (int i = 0; i < segments; i++) {
+            assertTrue(intCounts[i] > n / segments / 2);
+            assertTrue(intCounts[i] < n / segments * 2);
+            assertTrue(stringCounts[i] > n / segments / 2);
+            assertTrue(stringCounts[i] < n / segments * 2);
+        }
+    }
+
+}
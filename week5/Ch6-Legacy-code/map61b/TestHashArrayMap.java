@@ -0,0 +1,107 @@
+package map61b;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests HashArrayMap against java.util.LinkedHashMap, which keeps the
+ * same insertion order, so keys() must match it exactly.
+ */
+public class TestHashArrayMap {
+
+    /* A key whose hashCode collides with many others, so removals have
+     * long probe runs to shift back. */
+    private static class Collider {
+        private final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 5;
+        }
+
+        @Override
+        public String toString() {
+            return "c" + id;
+        }
+    }
+
+    private static <K, V> void assertMatches(Map<K, V> expected, HashArrayMap<K, V> m) {
+        assertEquals(expected.size(), m.size());
+        assertEquals(new ArrayList<>(expected.keySet()), m.keys());
+        for (Map.Entry<K, V> e : expected.entrySet()) {
+            assertEquals(e.getValue(), m.get(e.getKey()));
+        }
+    }
+
+    private static void randomOps(Random r, int keyRange, boolean colliding) {
+        HashArrayMap<Object, Integer> m = new HashArrayMap<>();
+        Map<Object, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int id = r.nextInt(keyRange);
+            Object k = colliding ? new Collider(id) : (Object) id;
+            int op = r.nextInt(20);
+            if (op < 10) {
+                m.put(k, i);
+                expected.put(k, i);
+            } else if (op < 17) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else if (op < 19) {
+                assertEquals(expected.get(k), m.get(k));
+                assertEquals(expected.containsKey(k), m.containsKey(k));
+            } else {
+                int mod = 2 + r.nextInt(5);
+                int rem = r.nextInt(mod);
+                boolean changed = expected.values().removeIf(v -> v % mod == rem);
+                assertEquals(changed, m.removeIf((key, v) -> v % mod == rem));
+            }
+            if (i % 500 == 0) {
+                assertMatches(expected, m);
+            }
+        }
+        assertMatches(expected, m);
+    }
+
+    @Test
+    public void testRemoveMatchesLinkedHashMap() {
+        randomOps(new Random(61), 3000, false);
+    }
+
+    @Test
+    public void testRemoveWithCollisions() {
+        randomOps(new Random(62), 200, true);
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        HashArrayMap<String, Integer> m = new HashArrayMap<>();
+        m.put("a", 1);
+        m.put("b", 2);
+        m.put("c", 3);
+        m.put("d", 4);
+        assertEquals((Integer) 2, m.remove("b"));
+        assertNull(m.remove("b"));
+        assertEquals(Arrays.asList("a", "c", "d"), m.keys());
+        assertTrue(m.removeIf((k, v) -> v > 3));
+        assertFalse(m.removeIf((k, v) -> v > 3));
+        assertEquals(Arrays.asList("a", "c"), m.keys());
+        m.put("b", 5);
+        assertEquals(Arrays.asList("a", "c", "b"), m.keys());
+        assertEquals((Integer) 3, m.get("c"));
+    }
+
+}
@@ -0,0 +1,115 @@
+package map61b;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests ObjectIntArrayMap against java.util.LinkedHashMap, which keeps
+ * the same insertion order, so keys() must match it exactly.
+ */
+public class TestObjectIntArrayMap {
+
+    private static <K> void assertMatches(Map<K, Integer> expected, ObjectIntArrayMap<K> m) {
+        assertEquals(expected.size(), m.size());
+        assertEquals(new ArrayList<>(expected.keySet()), m.keys());
+        for (Map.Entry<K, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), m.get(e.getKey()));
+        }
+    }
+
+    /** putInt on a new key right when the arrays are full must not lose it. */
+    @Test
+    public void testPutIntWhileGrowing() {
+        ObjectIntArrayMap<String> m = new ObjectIntArrayMap<>();
+        for (int i = 0; i < 10000; i++) {
+            m.putInt("k" + i, i);
+        }
+        assertEquals(10000, m.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, m.getInt("k" + i, -1));
+        }
+        assertEquals(-1, m.getInt("missing", -1));
+        assertNull(m.get("missing"));
+    }
+
+    @Test
+    public void testAddTo() {
+        ObjectIntArrayMap<String> m = new ObjectIntArrayMap<>();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            String k = "k" + r.nextInt(3000);
+            int delta = r.nextInt(10) - 3;
+            assertEquals((int) expected.merge(k, delta, Integer::sum), m.addTo(k, delta));
+        }
+        assertMatches(expected, m);
+    }
+
+    @Test
+    public void testBoxedPut() {
+        ObjectIntArrayMap<String> m = new ObjectIntArrayMap<>();
+        m.put("cat", 3);
+        m.put("cat", 4);
+        assertEquals((Integer) 4, m.get("cat"));
+        assertEquals(1, m.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNullValue() {
+        new ObjectIntArrayMap<String>().put("cat", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNullKey() {
+        new ObjectIntArrayMap<String>().putInt(null, 1);
+    }
+
+    @Test
+    public void testRemoveMatchesLinkedHashMap() {
+        ObjectIntArrayMap<String> m = new ObjectIntArrayMap<>();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            String k = "k" + r.nextInt(2000);
+            int op = r.nextInt(20);
+            if (op < 10) {
+                m.putInt(k, i);
+                expected.put(k, i);
+            } else if (op < 17) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else if (op < 19) {
+                assertEquals(expected.getOrDefault(k, -1), (Integer) m.getInt(k, -1));
+            } else {
+                int mod = 2 + r.nextInt(5);
+                boolean changed = expected.values().removeIf(v -> v % mod == 0);
+                assertEquals(changed, m.removeIf((key, v) -> v % mod == 0));
+            }
+            if (i % 500 == 0) {
+                assertMatches(expected, m);
+            }
+        }
+        assertMatches(expected, m);
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        ObjectIntArrayMap<String> m = new ObjectIntArrayMap<>();
+        m.putInt("a", 1);
+        m.putInt("b", 2);
+        m.putInt("c", 3);
+        assertEquals((Integer) 2, m.remove("b"));
+        assertNull(m.remove("b"));
+        assertEquals(Arrays.asList("a", "c"), m.keys());
+        m.putInt("b", 4);
+        assertEquals(Arrays.asList("a", "c", "b"), m.keys());
+        assertTrue(m.removeIf((k, v) -> v == 1));
+        assertEquals(Arrays.asList("c", "b"), m.keys());
+    }
+
+}
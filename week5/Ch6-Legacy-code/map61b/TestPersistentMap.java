@@ -0,0 +1,243 @@
+package map61b;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests that PersistentMap gets back exactly what was written after a
+ * reopen, with or without its index file, after a crash that tore the
+ * last record, and across compaction.
+ */
+public class TestPersistentMap {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String logFile() {
+        return folder.getRoot().toPath().resolve("map.log").toString();
+    }
+
+    private static PersistentMap<String, Integer> open(String file) {
+        return new PersistentMap<>(file, PersistentMap.Codec.STRINGS, PersistentMap.Codec.INTEGERS);
+    }
+
+    /** Applies random puts and removes to both maps. */
+    private static void randomOps(PersistentMap<String, Integer> m, Map<String, Integer> expected,
+                                  Random r, int count) {
+        for (int i = 0; i < count; i++) {
+            String k = "k" + r.nextInt(300);
+            if (r.nextInt(4) == 0) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else {
+                m.put(k, i);
+                expected.put(k, i);
+            }
+        }
+    }
+
+    private static void assertMatches(Map<String, Integer> expected, PersistentMap<String, Integer> m) {
+        assertEquals(expected.size(), m.size());
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), m.get(e.getKey()));
+        }
+        assertEquals(expected.keySet(), new HashSet<>(m.keys()));
+    }
+
+    @Test
+    public void testReopenWithIndex() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Random r = new Random(61);
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, r, 5000);
+        m.close();
+        assertTrue(Files.exists(Paths.get(logFile() + ".index")));
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        randomOps(m, expected, r, 5000);
+        m.close();
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+    @Test
+    public void testReopenWithoutIndex() throws IOException {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, new Random(61), 5000);
+        m.close();
+        Files.delete(Paths.get(logFile() + ".index"));
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+    /**
+     * Records written after the index file was saved, and never closed,
+     * are replayed on top of it.
+     */
+    @Test
+    public void testReplayAfterIndex() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Random r = new Random(61);
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, r, 2000);
+        m.close();
+
+        PersistentMap<String, Integer> crashed = open(logFile());
+        randomOps(crashed, expected, r, 2000);
+        crashed.sync();
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+    @Test
+    public void testTornLastRecordIsDropped() throws IOException {
+        PersistentMap<String, Integer> m = open(logFile());
+        m.put("cat", 1);
+        m.put("dog", 2);
+        m.put("cow", 3);
+        m.sync();
+        m.close();
+        Files.delete(Paths.get(logFile() + ".index"));
+
+        /* Cut the last record short, as a crash mid-write would. */
+        try (FileChannel log = FileChannel.open(Paths.get(logFile()), StandardOpenOption.WRITE)) {
+            log.truncate(log.size() - 2);
+        }
+
+        m = open(logFile());
+        assertEquals(2, m.size());
+        assertEquals((Integer) 1, m.get("cat"));
+        assertEquals((Integer) 2, m.get("dog"));
+        assertFalse(m.containsKey("cow"));
+
+        /* New records go after the last good one. */
+        m.put("cow", 4);
+        m.close();
+        m = open(logFile());
+        assertEquals((Integer) 4, m.get("cow"));
+        assertEquals(3, m.size());
+        m.close();
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, new Random(61), 20000);
+        long before = Files.size(Paths.get(logFile()));
+        m.compact();
+        long after = Files.size(Paths.get(logFile()));
+        assertTrue(after < before);
+        assertMatches(expected, m);
+
+        /* The map keeps working on the new log. */
+        randomOps(m, expected, new Random(62), 1000);
+        assertMatches(expected, m);
+        m.close();
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+        Files.delete(Paths.get(logFile() + ".index"));
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+    /** Overwriting the same keys again and again compacts on its own. */
+    @Test
+    public void testAutoCompact() throws IOException {
+        PersistentMap<String, Integer> m = open(logFile());
+        for (int i = 0; i < 200000; i++) {
+            m.put("key" + (i % 100), i);
+        }
+        m.sync();
+        assertTrue(Files.size(Paths.get(logFile())) < 2 << 20);
+        assertEquals((Integer) 199999, m.get("key99"));
+        m.close();
+    }
+
+    /**
+     * A compaction that fails part way leaves the map reading the old
+     * log, with nothing lost.
+     */
+    @Test
+    public void testFailedCompactKeepsOldLog() throws IOException {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, new Random(61), 5000);
+
+        /* A non-empty directory where the temp file should go. */
+        Path blocker = Paths.get(logFile() + ".compact");
+        Files.createDirectory(blocker);
+        Files.createFile(blocker.resolve("x"));
+        try {
+            m.compact();
+            fail("compact should have failed");
+        } catch (UncheckedIOException e) {
+            /* expected */
+        }
+        assertMatches(expected, m);
+        randomOps(m, expected, new Random(62), 1000);
+        m.close();
+
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+    /**
+     * Same, but failing after the new log is written and the old one
+     * closed, just before the swap.
+     */
+    @Test
+    public void testFailedSwapKeepsOldLog() throws IOException {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentMap<String, Integer> m = open(logFile());
+        randomOps(m, expected, new Random(61), 5000);
+
+        /* A non-empty directory where the index file is, which compact
+         * can't delete. */
+        Path blocker = Paths.get(logFile() + ".index");
+        Files.createDirectory(blocker);
+        Files.createFile(blocker.resolve("x"));
+        try {
+            m.compact();
+            fail("compact should have failed");
+        } catch (UncheckedIOException e) {
+            /* expected */
+        }
+        assertMatches(expected, m);
+        randomOps(m, expected, new Random(62), 1000);
+        assertMatches(expected, m);
+
+        Files.delete(blocker.resolve("x"));
+        Files.delete(blocker);
+        m.close();
+        m = open(logFile());
+        assertMatches(expected, m);
+        m.close();
+    }
+
+}